@@ -0,0 +1,313 @@
+/*
+ * Copyright 2015 Artem Mironov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jeesy.classinfo;
+
+import org.jeesy.classinfo.ClassFileWriter.Code;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.jeesy.classinfo.ClassFileWriter.*;
+
+/**
+ * Generates accessor classes what call property members directly.
+ * Generated classes are defined in separate class loader so only public members of public classes
+ * can be linked, for everything else generator falls back to {@link PropertyAccessor}.
+ * @author Artem Mironov
+ */
+final class AccessorGenerator {
+    private static final String GENERATED_PACKAGE = "org/jeesy/classinfo/generated/";
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+
+    private AccessorGenerator() {}
+
+    /**
+     * Create function what reads and writes property with direct calls
+     * @return generated function or {@link PropertyFunction} delegating to property accessor if generation is not possible
+     */
+    static <T> PropertyFunction<Object, T> generateFunction(PropertyInfo<T> info) {
+        AccessibleObject reader = PropertyAccessor.readMember(info);
+        AccessibleObject writer = PropertyAccessor.writeMember(info);
+        if((reader == null && writer == null) || (reader != null && !isLinkable(reader)) || (writer != null && !isLinkable(writer)))
+            return new PropertyFunction<>(info);
+        String name = className(info.getName());
+        String superName = internalName(PropertyFunction.class);
+        ClassFileWriter cw = new ClassFileWriter(name, superName);
+        addConstructor(cw, superName, PropertyInfo.class);
+        if(reader != null) {
+            Code code = new Code();
+            emitRead(cw, code, reader, 1);
+            code.op(ARETURN);
+            cw.addMethod(ACC_PUBLIC, "get", methodDescriptor(Object.class, Object.class), 4, 2, code);
+        }
+        if(writer != null) {
+            Code code = new Code();
+            emitWrite(cw, code, writer, 1, 2);
+            code.op(RETURN);
+            cw.addMethod(ACC_PUBLIC, "set", methodDescriptor(void.class, Object.class, Object.class), 4, 3, code);
+        }
+        try {
+            Class<?> type = define(cw, name, memberOwner(reader != null ? reader : writer));
+            @SuppressWarnings("unchecked")
+            PropertyFunction<Object, T> res = (PropertyFunction<Object, T>) type.getConstructor(PropertyInfo.class).newInstance(info);
+            if(reader != null) linkGet(res);
+            if(writer != null) linkSet(res, probeValue(writer));
+            return res;
+        } catch (Exception|LinkageError e) {
+            return new PropertyFunction<>(info);
+        }
+    }
+
+    /**
+     * Create accessor for all properties of class what dispatches property ordinal with tableswitch.
+     * Properties what can't be linked from generated code are dispatched to their accessors.
+     * @param classInfo bean class info
+     * @return generated accessor or {@link BeanAccessor} delegating to property accessors if generation is not possible
+     */
+    static BeanAccessor generateBeanAccessor(ClassInfo<?> classInfo) {
+        Class<?> type = classInfo.getType();
+        PropertyInfo[] properties = classInfo.propertyTable();
+        AccessibleObject[] readers = new AccessibleObject[properties.length];
+        AccessibleObject[] writers = new AccessibleObject[properties.length];
+        boolean linkable = false;
+        for(int i = 0; i < properties.length; i++) {
+            AccessibleObject reader = PropertyAccessor.readMember(properties[i]);
+            AccessibleObject writer = PropertyAccessor.writeMember(properties[i]);
+            if(reader != null && isLinkable(reader)) readers[i] = reader;
+            if(writer != null && isLinkable(writer)) writers[i] = writer;
+            linkable |= readers[i] != null || writers[i] != null;
+        }
+        if(!linkable) return new BeanAccessor(classInfo);
+        String name = className(type.getSimpleName() + "Accessor");
+        String superName = internalName(BeanAccessor.class);
+        ClassFileWriter cw = new ClassFileWriter(name, superName);
+        addConstructor(cw, superName, ClassInfo.class);
+
+        String getDescriptor = methodDescriptor(Object.class, Object.class, int.class);
+        Code get = new Code();
+        get.var(ILOAD, 2);
+        int getSwitch = get.tableSwitch(properties.length);
+        for(int i = 0; i < properties.length; i++) {
+            if(readers[i] == null) continue;
+            get.patchSwitch(getSwitch, i, get.length);
+            emitRead(cw, get, readers[i], 1);
+            get.op(ARETURN);
+        }
+        int getDefault = get.length;
+        get.var(ALOAD, 0).var(ALOAD, 1).var(ILOAD, 2);
+        get.op(INVOKESPECIAL, cw.methodRef(superName, "get", getDescriptor));
+        get.op(ARETURN);
+        patchDefaults(get, getSwitch, readers, getDefault);
+        cw.addMethod(ACC_PUBLIC, "get", getDescriptor, 4, 3, get);
+
+        String setDescriptor = methodDescriptor(void.class, Object.class, int.class, Object.class);
+        Code set = new Code();
+        set.var(ILOAD, 2);
+        int setSwitch = set.tableSwitch(properties.length);
+        for(int i = 0; i < properties.length; i++) {
+            if(writers[i] == null) continue;
+            set.patchSwitch(setSwitch, i, set.length);
+            emitWrite(cw, set, writers[i], 1, 3);
+            set.op(RETURN);
+        }
+        int setDefault = set.length;
+        set.var(ALOAD, 0).var(ALOAD, 1).var(ILOAD, 2).var(ALOAD, 3);
+        set.op(INVOKESPECIAL, cw.methodRef(superName, "set", setDescriptor));
+        set.op(RETURN);
+        patchDefaults(set, setSwitch, writers, setDefault);
+        cw.addMethod(ACC_PUBLIC, "set", setDescriptor, 4, 4, set);
+
+        try {
+            Class<?> accessorType = define(cw, name, type);
+            BeanAccessor res = (BeanAccessor) accessorType.getConstructor(ClassInfo.class).newInstance(classInfo);
+            for(int i = 0; i < properties.length; i++) {
+                if(readers[i] != null) linkGet(res, i);
+                if(writers[i] != null) linkSet(res, i, probeValue(writers[i]));
+            }
+            return res;
+        } catch (Exception|LinkageError e) {
+            return new BeanAccessor(classInfo);
+        }
+    }
+
+    /*
+     * JVM resolves member references of generated code lazily, on first execution, so linkage errors
+     * like IllegalAccessError are not thrown by define. Generated code is called here with null bean:
+     * member reference is resolved before null check, so linkage errors are thrown during generation
+     * and generator falls back to reflection, otherwise call ends with expected NullPointerException.
+     */
+
+    private static void linkGet(PropertyFunction<Object, ?> function) {
+        try {
+            function.get(null);
+        } catch (NullPointerException expected) {
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void linkSet(PropertyFunction<Object, ?> function, Object value) {
+        try {
+            ((PropertyFunction<Object, Object>) function).set(null, value);
+        } catch (NullPointerException expected) {
+        }
+    }
+
+    private static void linkGet(BeanAccessor accessor, int ordinal) {
+        try {
+            accessor.get(null, ordinal);
+        } catch (NullPointerException expected) {
+        }
+    }
+
+    private static void linkSet(BeanAccessor accessor, int ordinal, Object value) {
+        try {
+            accessor.set(null, ordinal, value);
+        } catch (NullPointerException expected) {
+        }
+    }
+
+    /**
+     * Value what passes unboxing of written member type, so generated write reaches member reference
+     */
+    private static Object probeValue(AccessibleObject writer) {
+        Class<?> type = memberType(writer);
+        return type.isPrimitive() ? Array.get(Array.newInstance(type, 1), 0) : null;
+    }
+
+    private static void patchDefaults(Code code, int switchPos, AccessibleObject[] members, int target) {
+        code.patchSwitch(switchPos, -1, target);
+        for(int i = 0; i < members.length; i++)
+            if(members[i] == null) code.patchSwitch(switchPos, i, target);
+    }
+
+    private static String className(String hint) {
+        StringBuilder sb = new StringBuilder(GENERATED_PACKAGE);
+        for(int i = 0; i < hint.length(); i++) {
+            char c = hint.charAt(i);
+            sb.append(Character.isJavaIdentifierPart(c) ? c : '_');
+        }
+        return sb.append('$').append(COUNTER.incrementAndGet()).toString();
+    }
+
+    private static Class<?> define(ClassFileWriter cw, String name, Class<?> owner) {
+        byte[] bytes = cw.toByteArray(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+        return GeneratedClassLoader.forParent(owner.getClassLoader()).define(name, bytes);
+    }
+
+    private static void addConstructor(ClassFileWriter cw, String superName, Class<?> parameterType) {
+        String descriptor = methodDescriptor(void.class, parameterType);
+        Code code = new Code();
+        code.var(ALOAD, 0).var(ALOAD, 1);
+        code.op(INVOKESPECIAL, cw.methodRef(superName, "<init>", descriptor));
+        code.op(RETURN);
+        cw.addMethod(ACC_PUBLIC, "<init>", descriptor, 2, 2, code);
+    }
+
+    private static Class<?> memberOwner(AccessibleObject member) {
+        return ((Member) member).getDeclaringClass();
+    }
+
+    private static Class<?> memberType(AccessibleObject member) {
+        if(member instanceof Field) return ((Field) member).getType();
+        Method m = (Method) member;
+        return m.getParameterTypes().length == 0 ? m.getReturnType() : m.getParameterTypes()[0];
+    }
+
+    /**
+     * Check what member and all types it refers to are accessible from generated class
+     */
+    static boolean isLinkable(AccessibleObject member) {
+        return Modifier.isPublic(((Member) member).getModifiers())
+                && isPublicType(memberOwner(member))
+                && isPublicType(memberType(member));
+    }
+
+    private static boolean isPublicType(Class<?> type) {
+        while(type.isArray()) type = type.getComponentType();
+        return type.isPrimitive() || Modifier.isPublic(type.getModifiers());
+    }
+
+    /**
+     * Emits code what pushes boxed property value of bean stored in local variable
+     */
+    static void emitRead(ClassFileWriter cw, Code code, AccessibleObject member, int beanSlot) {
+        Class<?> owner = memberOwner(member);
+        String ownerName = internalName(owner);
+        code.var(ALOAD, beanSlot).op(CHECKCAST, cw.classRef(ownerName));
+        Class<?> type = memberType(member);
+        if(member instanceof Field) {
+            Field f = (Field) member;
+            code.op(GETFIELD, cw.fieldRef(ownerName, f.getName(), descriptor(type)));
+        } else {
+            Method m = (Method) member;
+            invoke(cw, code, owner, m.getName(), methodDescriptor(type), 1);
+        }
+        box(cw, code, type);
+    }
+
+    /**
+     * Emits code what sets property of bean stored in local variable to value stored in another local variable
+     */
+    static void emitWrite(ClassFileWriter cw, Code code, AccessibleObject member, int beanSlot, int valueSlot) {
+        Class<?> owner = memberOwner(member);
+        String ownerName = internalName(owner);
+        code.var(ALOAD, beanSlot).op(CHECKCAST, cw.classRef(ownerName));
+        Class<?> type = memberType(member);
+        code.var(ALOAD, valueSlot);
+        unbox(cw, code, type);
+        if(member instanceof Field) {
+            Field f = (Field) member;
+            code.op(PUTFIELD, cw.fieldRef(ownerName, f.getName(), descriptor(type)));
+        } else {
+            Method m = (Method) member;
+            invoke(cw, code, owner, m.getName(), methodDescriptor(void.class, type), 1 + slots(type));
+        }
+    }
+
+    private static void invoke(ClassFileWriter cw, Code code, Class<?> owner, String name, String descriptor, int argsSize) {
+        String ownerName = internalName(owner);
+        if(owner.isInterface())
+            code.invokeInterface(cw.interfaceMethodRef(ownerName, name, descriptor), argsSize);
+        else
+            code.op(INVOKEVIRTUAL, cw.methodRef(ownerName, name, descriptor));
+    }
+
+    private static int slots(Class<?> type) {
+        return type == long.class || type == double.class ? 2 : 1;
+    }
+
+    private static void box(ClassFileWriter cw, Code code, Class<?> type) {
+        if(!type.isPrimitive()) return;
+        Class<?> wrapper = Utils.wrap(type);
+        code.op(INVOKESTATIC, cw.methodRef(internalName(wrapper), "valueOf", methodDescriptor(wrapper, type)));
+    }
+
+    private static void unbox(ClassFileWriter cw, Code code, Class<?> type) {
+        if(!type.isPrimitive()) {
+            if(type != Object.class) code.op(CHECKCAST, cw.classRef(internalName(type)));
+            return;
+        }
+        Class<?> wrapper = Utils.wrap(type);
+        String wrapperName = internalName(wrapper);
+        code.op(CHECKCAST, cw.classRef(wrapperName));
+        code.op(INVOKEVIRTUAL, cw.methodRef(wrapperName, type.getName() + "Value", methodDescriptor(type)));
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2015 Artem Mironov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jeesy.classinfo;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reads and writes all properties of a class by property ordinal.
+ * This implementation delegates to accessors of the properties.
+ * Runtime generated subclasses dispatch ordinal with a single switch over direct member calls,
+ * so generic code iterating over properties has one monomorphic call site per class.
+ * @see ClassInfo#getBeanAccessor()
+ * @author Artem Mironov
+ */
+public class BeanAccessor {
+    protected final ClassInfo<?> classInfo;
+    protected final PropertyInfo[] properties;
+
+    protected BeanAccessor(ClassInfo<?> classInfo) {
+        this.classInfo = classInfo;
+        this.properties = classInfo.propertyTable();
+    }
+
+    /**
+     * Get value of property with specified ordinal
+     * @param bean instance
+     * @param propertyOrdinal ordinal of the property, see {@link PropertyInfo#getOrdinal()}
+     * @return value of the property
+     */
+    public Object get(Object bean, int propertyOrdinal) {
+        return properties[propertyOrdinal].getValue(bean);
+    }
+
+    /**
+     * Set value of property with specified ordinal
+     * @param bean instance
+     * @param propertyOrdinal ordinal of the property, see {@link PropertyInfo#getOrdinal()}
+     * @param value value to set
+     */
+    @SuppressWarnings("unchecked")
+    public void set(Object bean, int propertyOrdinal, Object value) {
+        properties[propertyOrdinal].setValue(bean, value);
+    }
+
+    /**
+     * Properties in ordinal order
+     */
+    public List<PropertyInfo> getProperties() {
+        return Collections.unmodifiableList(Arrays.asList(properties));
+    }
+
+    /**
+     * Find ordinal of property by name
+     * @return ordinal or -1 if there is no such property
+     * @see ClassInfo#ordinalOf(CharSequence)
+     */
+    public int ordinalOf(String propertyName) {
+        return classInfo.ordinalOf(propertyName);
+    }
+}
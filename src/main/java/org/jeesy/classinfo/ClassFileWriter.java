@@ -0,0 +1,295 @@
+/*
+ * Copyright 2015 Artem Mironov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jeesy.classinfo;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Minimal class file writer used to spin accessor classes at runtime without bytecode libraries.
+ * Writes class file version 49 so no stack map frames are required.
+ * Supports only what accessor generation needs: constant pool with class/member references and methods with code.
+ * @author Artem Mironov
+ */
+final class ClassFileWriter {
+    static final int ACC_PUBLIC = 0x0001;
+    static final int ACC_FINAL = 0x0010;
+    static final int ACC_SUPER = 0x0020;
+
+    static final int ILOAD = 0x15;
+    static final int ALOAD = 0x19;
+    static final int ARETURN = 0xB0;
+    static final int RETURN = 0xB1;
+    static final int GETFIELD = 0xB4;
+    static final int PUTFIELD = 0xB5;
+    static final int INVOKEVIRTUAL = 0xB6;
+    static final int INVOKESPECIAL = 0xB7;
+    static final int INVOKESTATIC = 0xB8;
+    static final int INVOKEINTERFACE = 0xB9;
+    static final int CHECKCAST = 0xC0;
+    static final int TABLESWITCH = 0xAA;
+
+    private static final int MAJOR_VERSION = 49;
+
+    private final ByteVector pool = new ByteVector();
+    private final Map<String, Integer> poolIndex = new HashMap<>();
+    private int poolSize = 1;
+    private final ByteVector methods = new ByteVector();
+    private int methodCount;
+    private final int thisClass;
+    private final int superClass;
+    private final int[] interfaces;
+
+    /**
+     * @param name internal name of generated class
+     * @param superName internal name of super class
+     * @param interfaceNames internal names of implemented interfaces
+     */
+    ClassFileWriter(String name, String superName, String... interfaceNames) {
+        thisClass = classRef(name);
+        superClass = classRef(superName);
+        interfaces = new int[interfaceNames.length];
+        for(int i = 0; i < interfaceNames.length; i++)
+            interfaces[i] = classRef(interfaceNames[i]);
+    }
+
+    private Integer lookup(String key) {
+        return poolIndex.get(key);
+    }
+
+    private int register(String key) {
+        poolIndex.put(key, poolSize);
+        return poolSize++;
+    }
+
+    int utf8(String value) {
+        String key = "1:" + value;
+        Integer idx = lookup(key);
+        if(idx != null) return idx;
+        pool.putByte(1).putUTF8(value);
+        return register(key);
+    }
+
+    int classRef(String internalName) {
+        String key = "7:" + internalName;
+        Integer idx = lookup(key);
+        if(idx != null) return idx;
+        int nameIdx = utf8(internalName);
+        pool.putByte(7).putShort(nameIdx);
+        return register(key);
+    }
+
+    private int nameAndType(String name, String descriptor) {
+        String key = "12:" + name + ":" + descriptor;
+        Integer idx = lookup(key);
+        if(idx != null) return idx;
+        int nameIdx = utf8(name);
+        int descIdx = utf8(descriptor);
+        pool.putByte(12).putShort(nameIdx).putShort(descIdx);
+        return register(key);
+    }
+
+    private int memberRef(int tag, String owner, String name, String descriptor) {
+        String key = tag + ":" + owner + "." + name + ":" + descriptor;
+        Integer idx = lookup(key);
+        if(idx != null) return idx;
+        int ownerIdx = classRef(owner);
+        int natIdx = nameAndType(name, descriptor);
+        pool.putByte(tag).putShort(ownerIdx).putShort(natIdx);
+        return register(key);
+    }
+
+    int fieldRef(String owner, String name, String descriptor) {
+        return memberRef(9, owner, name, descriptor);
+    }
+
+    int methodRef(String owner, String name, String descriptor) {
+        return memberRef(10, owner, name, descriptor);
+    }
+
+    int interfaceMethodRef(String owner, String name, String descriptor) {
+        return memberRef(11, owner, name, descriptor);
+    }
+
+    /**
+     * Add method with code attribute and without exception table
+     */
+    void addMethod(int access, String name, String descriptor, int maxStack, int maxLocals, Code code) {
+        int nameIdx = utf8(name);
+        int descIdx = utf8(descriptor);
+        int codeIdx = utf8("Code");
+        methods.putShort(access).putShort(nameIdx).putShort(descIdx).putShort(1);
+        methods.putShort(codeIdx).putInt(12 + code.length);
+        methods.putShort(maxStack).putShort(maxLocals).putInt(code.length);
+        methods.putBytes(code.data, code.length);
+        methods.putShort(0).putShort(0);
+        methodCount++;
+    }
+
+    byte[] toByteArray(int access) {
+        ByteVector out = new ByteVector();
+        out.putInt(0xCAFEBABE).putShort(0).putShort(MAJOR_VERSION);
+        out.putShort(poolSize).putBytes(pool.data, pool.length);
+        out.putShort(access).putShort(thisClass).putShort(superClass);
+        out.putShort(interfaces.length);
+        for(int i : interfaces) out.putShort(i);
+        out.putShort(0);
+        out.putShort(methodCount).putBytes(methods.data, methods.length);
+        out.putShort(0);
+        return Arrays.copyOf(out.data, out.length);
+    }
+
+    /**
+     * Returns internal name of the class: java/lang/String or [Ljava/lang/String; for arrays
+     */
+    static String internalName(Class<?> type) {
+        return type.getName().replace('.', '/');
+    }
+
+    static String descriptor(Class<?> type) {
+        if(type == void.class) return "V";
+        if(type == int.class) return "I";
+        if(type == long.class) return "J";
+        if(type == boolean.class) return "Z";
+        if(type == byte.class) return "B";
+        if(type == char.class) return "C";
+        if(type == short.class) return "S";
+        if(type == float.class) return "F";
+        if(type == double.class) return "D";
+        if(type.isArray()) return internalName(type);
+        return "L" + internalName(type) + ";";
+    }
+
+    static String methodDescriptor(Class<?> returnType, Class<?>... parameterTypes) {
+        StringBuilder sb = new StringBuilder("(");
+        for(Class<?> p : parameterTypes) sb.append(descriptor(p));
+        return sb.append(')').append(descriptor(returnType)).toString();
+    }
+
+    static class ByteVector {
+        byte[] data = new byte[64];
+        int length;
+
+        private void ensure(int size) {
+            if(length + size > data.length)
+                data = Arrays.copyOf(data, Math.max(data.length * 2, length + size));
+        }
+
+        ByteVector putByte(int b) {
+            ensure(1);
+            data[length++] = (byte) b;
+            return this;
+        }
+
+        ByteVector putShort(int s) {
+            ensure(2);
+            data[length++] = (byte) (s >>> 8);
+            data[length++] = (byte) s;
+            return this;
+        }
+
+        ByteVector putInt(int i) {
+            ensure(4);
+            data[length++] = (byte) (i >>> 24);
+            data[length++] = (byte) (i >>> 16);
+            data[length++] = (byte) (i >>> 8);
+            data[length++] = (byte) i;
+            return this;
+        }
+
+        ByteVector putBytes(byte[] bytes, int len) {
+            ensure(len);
+            System.arraycopy(bytes, 0, data, length, len);
+            length += len;
+            return this;
+        }
+
+        /**
+         * Writes length prefixed modified UTF-8 as required by CONSTANT_Utf8_info
+         */
+        ByteVector putUTF8(String s) {
+            int start = length;
+            putShort(0);
+            for(int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if(c >= 0x01 && c <= 0x7F) {
+                    putByte(c);
+                } else if(c <= 0x7FF) {
+                    putByte(0xC0 | (c >> 6)).putByte(0x80 | (c & 0x3F));
+                } else {
+                    putByte(0xE0 | (c >> 12)).putByte(0x80 | ((c >> 6) & 0x3F)).putByte(0x80 | (c & 0x3F));
+                }
+            }
+            int len = length - start - 2;
+            data[start] = (byte) (len >>> 8);
+            data[start + 1] = (byte) len;
+            return this;
+        }
+    }
+
+    /**
+     * Method code buffer
+     */
+    static class Code extends ByteVector {
+        Code op(int opcode) {
+            putByte(opcode);
+            return this;
+        }
+
+        Code op(int opcode, int index) {
+            putByte(opcode).putShort(index);
+            return this;
+        }
+
+        Code var(int opcode, int slot) {
+            putByte(opcode).putByte(slot);
+            return this;
+        }
+
+        Code invokeInterface(int index, int argsSize) {
+            putByte(INVOKEINTERFACE).putShort(index).putByte(argsSize).putByte(0);
+            return this;
+        }
+
+        /**
+         * Emits tableswitch with keys from 0 to count - 1.
+         * Returns position of the instruction to pass to {@link #patchSwitch(int, int, int)} when case labels are known.
+         */
+        int tableSwitch(int count) {
+            int pos = length;
+            putByte(TABLESWITCH);
+            while(length % 4 != 0) putByte(0);
+            putInt(0).putInt(0).putInt(count - 1);
+            for(int i = 0; i < count; i++) putInt(0);
+            return pos;
+        }
+
+        /**
+         * Set jump target of switch case. Case -1 is the default label.
+         */
+        void patchSwitch(int switchPos, int switchCase, int target) {
+            int table = switchPos + 1;
+            while(table % 4 != 0) table++;
+            int at = switchCase < 0 ? table : table + 12 + switchCase * 4;
+            int offset = target - switchPos;
+            data[at] = (byte) (offset >>> 24);
+            data[at + 1] = (byte) (offset >>> 16);
+            data[at + 2] = (byte) (offset >>> 8);
+            data[at + 3] = (byte) offset;
+        }
+    }
+}
@@ -15,6 +15,7 @@
  */
 package org.jeesy.classinfo;
 
+import org.jeesy.classinfo.ClassInfoScanner.AccessBehaviour;
 import org.jeesy.classinfo.indexes.ClassIndex;
 import org.jeesy.classinfo.indexes.CommonClassIndex;
 import org.jeesy.classinfo.indexes.PropertyIndex;
@@ -42,8 +43,11 @@ public class ClassInfo<ClassType> implements AnnotatedNode {
     private final ClassInfoScanner scanner;
     private final Class<ClassType> type;
     private final Map<String, PropertyInfo> properties;
+    private PropertyInfo[] propertyTable;
+    private PropertyNameTable nameTable;
     private final Map<Class<? extends ClassIndex>, ClassIndex> scanIndexMap;
     private final ClassInfo parent;
+    private volatile BeanAccessor beanAccessor;
 
     private final static String PREFIX_GET = "get";
     private final static String PREFIX_SET = "set";
@@ -69,6 +73,70 @@ public class ClassInfo<ClassType> implements AnnotatedNode {
             throw new IllegalArgumentException("Property "+propertyName+" is not assignable from class "+propertyType);
     }
 
+    /**
+     * Find property by name given as any char sequence without creating string from it
+     * @return property metadata or null if property not found
+     */
+    public PropertyInfo getPropertyInfo(final CharSequence propertyName) {
+        int ordinal = nameTable.ordinalOf(propertyName);
+        return ordinal < 0 ? null : propertyTable[ordinal];
+    }
+
+    /**
+     * Find property by name given as slice of char buffer without creating string from it
+     * @return property metadata or null if property not found
+     */
+    public PropertyInfo getPropertyInfo(final char[] buf, final int offset, final int length) {
+        int ordinal = nameTable.ordinalOf(buf, offset, length);
+        return ordinal < 0 ? null : propertyTable[ordinal];
+    }
+
+    /**
+     * Find ordinal of property by name given as any char sequence
+     * @return property ordinal or -1 if property not found
+     */
+    public int ordinalOf(final CharSequence propertyName) {
+        return nameTable.ordinalOf(propertyName);
+    }
+
+    /**
+     * Find ordinal of property by name given as slice of char buffer
+     * @return property ordinal or -1 if property not found
+     */
+    public int ordinalOf(final char[] buf, final int offset, final int length) {
+        return nameTable.ordinalOf(buf, offset, length);
+    }
+
+    /**
+     * Get property by ordinal
+     * @param ordinal dense ordinal of the property from 0 to {@link #propertyCount()} - 1
+     * @see PropertyInfo#getOrdinal()
+     */
+    public PropertyInfo getProperty(final int ordinal) {
+        return propertyTable[ordinal];
+    }
+
+    /**
+     * Properties in ordinal order without copying, must not be modified
+     */
+    PropertyInfo[] propertyTable() {
+        return propertyTable;
+    }
+
+    /**
+     * Number of properties in this class including inherited ones
+     */
+    public int propertyCount() {
+        return propertyTable.length;
+    }
+
+    /**
+     * Properties in ordinal order
+     */
+    public List<PropertyInfo> getPropertyList() {
+        return Collections.unmodifiableList(Arrays.asList(propertyTable));
+    }
+
     public Class<ClassType> getType() {
         return type;
     }
@@ -244,10 +312,54 @@ public class ClassInfo<ClassType> implements AnnotatedNode {
             }
         }
         postProcessProperties();
+        buildPropertyTable();
+        bindAccessors();
         indexAfter();
         return this;
     }
 
+    /**
+     * Assign dense ordinals to properties.
+     * Inherited properties keep ordinals from parent class since property info instances can be shared with parent,
+     * properties introduced in this class follow them sorted by name.
+     */
+    private void buildPropertyTable() {
+        List<PropertyInfo> table = new ArrayList<>(properties.size());
+        if(parent != null) {
+            for(PropertyInfo parentPi : parent.propertyTable) {
+                PropertyInfo pi = properties.get(parentPi.getName());
+                if(pi != null) table.add(pi);
+            }
+        }
+        List<PropertyInfo> own = new ArrayList<>();
+        for(PropertyInfo pi : properties.values()) {
+            if(parent == null || !parent.properties.containsKey(pi.getName())) own.add(pi);
+        }
+        Collections.sort(own, new Comparator<PropertyInfo>() {
+            @Override
+            public int compare(PropertyInfo o1, PropertyInfo o2) {
+                return o1.getName().compareTo(o2.getName());
+            }
+        });
+        table.addAll(own);
+        propertyTable = table.toArray(new PropertyInfo[table.size()]);
+        for(int i = 0; i < propertyTable.length; i++)
+            propertyTable[i].ordinal = i;
+        nameTable = new PropertyNameTable(propertyTable);
+    }
+
+    /**
+     * Bind accessors for properties declared or overridden in this class.
+     * Properties shared with parent are already bound.
+     */
+    private void bindAccessors() {
+        AccessBehaviour accessBehaviour = scanner.getAccessBehaviour();
+        for (PropertyInfo pi : properties.values()) {
+            if(pi.accessor == null)
+                pi.accessor = accessBehaviour.createAccessor(pi);
+        }
+    }
+
     private void postProcessProperties() {
          for (Map.Entry<String, PropertyInfo> entry : properties.entrySet()) {
              PropertyInfo pi = entry.getValue();
@@ -316,6 +428,19 @@ public class ClassInfo<ClassType> implements AnnotatedNode {
         return pi;
     }
 
+    /**
+     * Accessor for all properties of this class by ordinal.
+     * Accessor class is generated on first request, so only classes what are accessed this way pay for generation.
+     */
+    public BeanAccessor getBeanAccessor() {
+        BeanAccessor res = beanAccessor;
+        if(res == null) {
+            res = AccessorGenerator.generateBeanAccessor(this);
+            beanAccessor = res;
+        }
+        return res;
+    }
+
     public ClassInfoScanner getScanner() {
         return scanner;
     }
@@ -27,23 +27,34 @@ import java.util.*;
 public class ClassInfoScanner extends ClassValue<ClassInfo> {
     private ScanBehaviour scanBehaviour;
     private InstantiationBehaviour instantiationBehaviour;
+    private AccessBehaviour accessBehaviour;
     private final List<Class<? extends ClassIndex>> scanIndexes;
 
     public ClassInfoScanner(ScanBehaviour scanBehaviour) {
         this.scanBehaviour = scanBehaviour;
         this.instantiationBehaviour = new DefaultInstantiationBehaviour();
+        this.accessBehaviour = new DefaultAccessBehaviour();
         scanIndexes = Collections.emptyList();
     }
 
     public ClassInfoScanner(ScanBehaviour scanBehaviour, InstantiationBehaviour instantiationBehaviour) {
         this.scanBehaviour = scanBehaviour;
         this.instantiationBehaviour = instantiationBehaviour;
+        this.accessBehaviour = new DefaultAccessBehaviour();
         scanIndexes = Collections.emptyList();
     }
 
     public ClassInfoScanner(ScanBehaviour scanBehaviour, InstantiationBehaviour instantiationBehaviour, List<Class<? extends ClassIndex>> scanIndexes) {
         this.scanBehaviour = scanBehaviour;
         this.instantiationBehaviour = instantiationBehaviour;
+        this.accessBehaviour = new DefaultAccessBehaviour();
+        this.scanIndexes = scanIndexes;
+    }
+
+    public ClassInfoScanner(ScanBehaviour scanBehaviour, InstantiationBehaviour instantiationBehaviour, List<Class<? extends ClassIndex>> scanIndexes, AccessBehaviour accessBehaviour) {
+        this.scanBehaviour = scanBehaviour;
+        this.instantiationBehaviour = instantiationBehaviour;
+        this.accessBehaviour = accessBehaviour;
         this.scanIndexes = scanIndexes;
     }
 
@@ -62,6 +73,7 @@ public class ClassInfoScanner extends ClassValue<ClassInfo> {
 
     public ScanBehaviour getScanBehaviour() {return scanBehaviour;}
     public InstantiationBehaviour getInstantiationBehaviour() {return instantiationBehaviour;}
+    public AccessBehaviour getAccessBehaviour() {return accessBehaviour;}
     public List<Class<? extends ClassIndex>> getScanIndexes() {return scanIndexes;}
 
     @Override
@@ -112,6 +124,30 @@ public class ClassInfoScanner extends ClassValue<ClassInfo> {
         }
     }
 
+    /**
+     * Binds properties to method handles and falls back to reflection if handles can't be created.
+     */
+    public static class DefaultAccessBehaviour implements AccessBehaviour {
+        @Override
+        public PropertyAccessor createAccessor(final PropertyInfo<?> propertyInfo) {
+            try {
+                return new PropertyAccessor.MethodHandleAccessor(propertyInfo);
+            } catch (IllegalAccessException|RuntimeException e) {
+                return new PropertyAccessor.ReflectionAccessor(propertyInfo);
+            }
+        }
+    }
+
+    /**
+     * Always uses plain reflection to access properties.
+     */
+    public static class ReflectionAccessBehaviour implements AccessBehaviour {
+        @Override
+        public PropertyAccessor createAccessor(final PropertyInfo<?> propertyInfo) {
+            return new PropertyAccessor.ReflectionAccessor(propertyInfo);
+        }
+    }
+
     private static final ClassInfoScanner DEFAULT = new ClassInfoScanner(new DefaultScanBehaviour());
 
     /**
@@ -159,5 +195,14 @@ public class ClassInfoScanner extends ClassValue<ClassInfo> {
          */
         boolean mergeAnnotations(final Class<? extends Annotation> annotated, final Class<? extends Annotation> annotation);
     }
-}
 
+    public interface AccessBehaviour {
+        /**
+         * Create accessor for introspected property. Called once when class introspection is finished.
+         *
+         * @param propertyInfo property info with read/write methods and field resolved
+         * @return accessor used by {@link PropertyInfo#getValue(Object)} and {@link PropertyInfo#setValue(Object, Object)}
+         */
+        PropertyAccessor createAccessor(final PropertyInfo<?> propertyInfo);
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2015 Artem Mironov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jeesy.classinfo;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Defines runtime generated accessor classes.
+ * Loader is a child of bean class loader so generated code can link against bean classes,
+ * library classes what generated code extends are always resolved from the library class loader.
+ * One loader is shared by all classes generated for the same bean class loader.
+ * @author Artem Mironov
+ */
+final class GeneratedClassLoader extends ClassLoader {
+    private static final String LIBRARY_PACKAGE = ClassInfo.class.getPackage().getName() + ".";
+    private static final Map<ClassLoader, WeakReference<GeneratedClassLoader>> LOADERS = new WeakHashMap<>();
+
+    private GeneratedClassLoader(ClassLoader parent) {
+        super(parent);
+    }
+
+    /**
+     * Loader for classes generated against specified bean class loader.
+     * Loaders are held weakly so they don't prevent bean class loader from unloading.
+     */
+    static synchronized GeneratedClassLoader forParent(ClassLoader parent) {
+        WeakReference<GeneratedClassLoader> ref = LOADERS.get(parent);
+        GeneratedClassLoader res = ref != null ? ref.get() : null;
+        if(res == null) {
+            res = new GeneratedClassLoader(parent);
+            LOADERS.put(parent, new WeakReference<>(res));
+        }
+        return res;
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        if(name.startsWith(LIBRARY_PACKAGE) && name.indexOf('.', LIBRARY_PACKAGE.length()) < 0) {
+            Class<?> libraryClass = forLibraryClass(name);
+            if(libraryClass != null) return libraryClass;
+        }
+        return super.loadClass(name, resolve);
+    }
+
+    private static Class<?> forLibraryClass(String name) {
+        try {
+            return Class.forName(name, false, GeneratedClassLoader.class.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    synchronized Class<?> define(String internalName, byte[] bytes) {
+        return defineClass(internalName.replace('/', '.'), bytes, 0, bytes.length);
+    }
+}
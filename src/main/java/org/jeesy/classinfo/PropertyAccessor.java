@@ -0,0 +1,518 @@
+/*
+ * Copyright 2015 Artem Mironov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jeesy.classinfo;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+
+/**
+ * Reads and writes value of a single property.
+ * Accessor is bound once per {@link PropertyInfo} by {@link ClassInfoScanner.AccessBehaviour}
+ * so all member lookups and access checks are done at introspection time.
+ * @author Artem Mironov
+ */
+public abstract class PropertyAccessor {
+    protected final PropertyInfo<?> info;
+
+    protected PropertyAccessor(PropertyInfo<?> info) {
+        this.info = info;
+    }
+
+    /**
+     * Get property value. If value is not readable will thrown exception
+     * @param bean instance
+     * @return value of the property
+     */
+    public abstract Object get(Object bean);
+
+    /**
+     * Set property value. If this property is not writable will throw exception.
+     * @param bean instance
+     * @param value value to set
+     */
+    public abstract void set(Object bean, Object value);
+
+    /**
+     * Get value of int property. Default implementation unboxes result of {@link #get(Object)}
+     * @throws IllegalStateException if wrapper property is null
+     */
+    public int getInt(Object bean) {
+        return (Integer) getNotNull(bean);
+    }
+
+    public long getLong(Object bean) {
+        return (Long) getNotNull(bean);
+    }
+
+    public double getDouble(Object bean) {
+        return (Double) getNotNull(bean);
+    }
+
+    public boolean getBoolean(Object bean) {
+        return (Boolean) getNotNull(bean);
+    }
+
+    private Object getNotNull(Object bean) {
+        Object res = get(bean);
+        if(res == null) throw new IllegalStateException("Property "+info.getName()+" is null and can't be unboxed");
+        return res;
+    }
+
+    /**
+     * Set value of int property. Default implementation boxes value and passes it to {@link #set(Object, Object)}
+     */
+    public void setInt(Object bean, int value) {
+        set(bean, value);
+    }
+
+    public void setLong(Object bean, long value) {
+        set(bean, value);
+    }
+
+    public void setDouble(Object bean, double value) {
+        set(bean, value);
+    }
+
+    public void setBoolean(Object bean, boolean value) {
+        set(bean, value);
+    }
+
+    protected IllegalStateException notReadable() {
+        return new IllegalStateException("Property "+info.getName()+" is not readable");
+    }
+
+    protected IllegalStateException notWritable() {
+        return new IllegalStateException("Property "+info.getName()+" is not writable");
+    }
+
+    /**
+     * Member used to read the property: read method or accessible field.
+     */
+    static AccessibleObject readMember(PropertyInfo<?> info) {
+        if(info.getReadMethod() != null) return info.getReadMethod();
+        Field field = info.getField();
+        return field != null && PropertyInfo.publicOrProtected(field.getModifiers()) ? field : null;
+    }
+
+    /**
+     * Member used to write the property: write method or accessible field.
+     */
+    static AccessibleObject writeMember(PropertyInfo<?> info) {
+        if(info.getWriteMethod() != null) return info.getWriteMethod();
+        Field field = info.getField();
+        return field != null && PropertyInfo.publicOrProtected(field.getModifiers()) ? field : null;
+    }
+
+    /**
+     * Accessor what uses plain reflection. Members are made accessible once on creation.
+     * Primitive fields are accessed with typed field methods, primitive read and write methods
+     * are bound to typed method handles since reflection has no primitive invoke.
+     */
+    public static class ReflectionAccessor extends PropertyAccessor {
+        private final AccessibleObject reader;
+        private final AccessibleObject writer;
+        private final Class<?> primitiveType;
+        private final MethodHandle primitiveGetter;
+        private final MethodHandle primitiveSetter;
+
+        public ReflectionAccessor(PropertyInfo<?> info) {
+            super(info);
+            reader = makeAccessible(readMember(info));
+            writer = makeAccessible(writeMember(info));
+            Class<?> type = info.getType();
+            primitiveType = type.isPrimitive() ? type : null;
+            primitiveGetter = primitiveType != null && reader instanceof Method ? primitiveHandle(reader, false) : null;
+            primitiveSetter = primitiveType != null && writer instanceof Method ? primitiveHandle(writer, true) : null;
+        }
+
+        /**
+         * @return typed handle or null if it can't be created, then value is boxed by reflective call
+         */
+        private MethodHandle primitiveHandle(AccessibleObject member, boolean write) {
+            try {
+                MethodHandle raw = MethodHandleAccessor.unreflect(member, write);
+                return raw.asType(write ? MethodType.methodType(void.class, Object.class, primitiveType)
+                        : MethodType.methodType(primitiveType, Object.class));
+            } catch (IllegalAccessException|RuntimeException e) {
+                return null;
+            }
+        }
+
+        private static AccessibleObject makeAccessible(AccessibleObject member) {
+            if(member != null) {
+                try {
+                    member.setAccessible(true);
+                } catch (RuntimeException e) {
+                    //keep default access checks
+                }
+            }
+            return member;
+        }
+
+        @Override
+        public Object get(Object bean) {
+            try {
+                if(reader instanceof Method) return ((Method) reader).invoke(bean);
+                else if(reader != null) return ((Field) reader).get(bean);
+                else throw notReadable();
+            } catch(IllegalAccessException e) {
+                Utils.uncheckedThrow(e);
+            } catch(InvocationTargetException e) {
+                Utils.uncheckedThrow(e.getTargetException());
+            }
+            return null;//should not executed
+        }
+
+        @Override
+        public void set(Object bean, Object value) {
+            try {
+                if(writer instanceof Method) ((Method) writer).invoke(bean, value);
+                else if(writer != null) ((Field) writer).set(bean, value);
+                else throw notWritable();
+            } catch(IllegalAccessException e) {
+                Utils.uncheckedThrow(e);
+            } catch(InvocationTargetException e) {
+                Utils.uncheckedThrow(e.getTargetException());
+            }
+        }
+
+        @Override
+        public int getInt(Object bean) {
+            if(primitiveType == int.class) {
+                try {
+                    if(primitiveGetter != null) return (int) primitiveGetter.invokeExact(bean);
+                    if(reader instanceof Field) return ((Field) reader).getInt(bean);
+                } catch (Throwable e) {
+                    MethodHandleAccessor.rethrow(e, bean, reader);
+                }
+            }
+            return super.getInt(bean);
+        }
+
+        @Override
+        public long getLong(Object bean) {
+            if(primitiveType == long.class) {
+                try {
+                    if(primitiveGetter != null) return (long) primitiveGetter.invokeExact(bean);
+                    if(reader instanceof Field) return ((Field) reader).getLong(bean);
+                } catch (Throwable e) {
+                    MethodHandleAccessor.rethrow(e, bean, reader);
+                }
+            }
+            return super.getLong(bean);
+        }
+
+        @Override
+        public double getDouble(Object bean) {
+            if(primitiveType == double.class) {
+                try {
+                    if(primitiveGetter != null) return (double) primitiveGetter.invokeExact(bean);
+                    if(reader instanceof Field) return ((Field) reader).getDouble(bean);
+                } catch (Throwable e) {
+                    MethodHandleAccessor.rethrow(e, bean, reader);
+                }
+            }
+            return super.getDouble(bean);
+        }
+
+        @Override
+        public boolean getBoolean(Object bean) {
+            if(primitiveType == boolean.class) {
+                try {
+                    if(primitiveGetter != null) return (boolean) primitiveGetter.invokeExact(bean);
+                    if(reader instanceof Field) return ((Field) reader).getBoolean(bean);
+                } catch (Throwable e) {
+                    MethodHandleAccessor.rethrow(e, bean, reader);
+                }
+            }
+            return super.getBoolean(bean);
+        }
+
+        @Override
+        public void setInt(Object bean, int value) {
+            if(primitiveType == int.class) {
+                try {
+                    if(primitiveSetter != null) {
+                        primitiveSetter.invokeExact(bean, value);
+                        return;
+                    }
+                    if(writer instanceof Field) {
+                        ((Field) writer).setInt(bean, value);
+                        return;
+                    }
+                } catch (Throwable e) {
+                    MethodHandleAccessor.rethrow(e, bean, writer);
+                }
+            }
+            super.setInt(bean, value);
+        }
+
+        @Override
+        public void setLong(Object bean, long value) {
+            if(primitiveType == long.class) {
+                try {
+                    if(primitiveSetter != null) {
+                        primitiveSetter.invokeExact(bean, value);
+                        return;
+                    }
+                    if(writer instanceof Field) {
+                        ((Field) writer).setLong(bean, value);
+                        return;
+                    }
+                } catch (Throwable e) {
+                    MethodHandleAccessor.rethrow(e, bean, writer);
+                }
+            }
+            super.setLong(bean, value);
+        }
+
+        @Override
+        public void setDouble(Object bean, double value) {
+            if(primitiveType == double.class) {
+                try {
+                    if(primitiveSetter != null) {
+                        primitiveSetter.invokeExact(bean, value);
+                        return;
+                    }
+                    if(writer instanceof Field) {
+                        ((Field) writer).setDouble(bean, value);
+                        return;
+                    }
+                } catch (Throwable e) {
+                    MethodHandleAccessor.rethrow(e, bean, writer);
+                }
+            }
+            super.setDouble(bean, value);
+        }
+
+        @Override
+        public void setBoolean(Object bean, boolean value) {
+            if(primitiveType == boolean.class) {
+                try {
+                    if(primitiveSetter != null) {
+                        primitiveSetter.invokeExact(bean, value);
+                        return;
+                    }
+                    if(writer instanceof Field) {
+                        ((Field) writer).setBoolean(bean, value);
+                        return;
+                    }
+                } catch (Throwable e) {
+                    MethodHandleAccessor.rethrow(e, bean, writer);
+                }
+            }
+            super.setBoolean(bean, value);
+        }
+    }
+
+    /**
+     * Accessor what binds read and write members to method handles adapted to generic (Object)Object
+     * and (Object,Object)void signatures, so they can be invoked exactly without reflective argument checks.
+     * For primitive properties additional handles with primitive signature are bound to read and write without boxing.
+     */
+    public static class MethodHandleAccessor extends PropertyAccessor {
+        private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+        private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+        private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+        private final AccessibleObject reader;
+        private final AccessibleObject writer;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+        private final Class<?> primitiveType;
+        private final MethodHandle primitiveGetter;
+        private final MethodHandle primitiveSetter;
+
+        /**
+         * @throws IllegalAccessException if handle for any of property members can't be created
+         */
+        public MethodHandleAccessor(PropertyInfo<?> info) throws IllegalAccessException {
+            super(info);
+            reader = readMember(info);
+            writer = writeMember(info);
+            MethodHandle rawGetter = reader != null ? unreflect(reader, false) : null;
+            MethodHandle rawSetter = writer != null ? unreflect(writer, true) : null;
+            getter = rawGetter != null ? rawGetter.asType(GETTER_TYPE) : null;
+            setter = rawSetter != null ? rawSetter.asType(SETTER_TYPE) : null;
+            Class<?> type = info.getType();
+            if(type.isPrimitive()) {
+                primitiveType = type;
+                primitiveGetter = rawGetter != null ? rawGetter.asType(MethodType.methodType(type, Object.class)) : null;
+                primitiveSetter = rawSetter != null ? rawSetter.asType(MethodType.methodType(void.class, Object.class, type)) : null;
+            } else {
+                primitiveType = null;
+                primitiveGetter = null;
+                primitiveSetter = null;
+            }
+        }
+
+        private static MethodHandle unreflect(AccessibleObject member, boolean write) throws IllegalAccessException {
+            boolean accessible = member.isAccessible();
+            member.setAccessible(true);
+            try {
+                if(member instanceof Method) return LOOKUP.unreflect((Method) member);
+                else if(write) return LOOKUP.unreflectSetter((Field) member);
+                else return LOOKUP.unreflectGetter((Field) member);
+            } finally {
+                member.setAccessible(accessible);
+            }
+        }
+
+        /**
+         * Rethrows exception of handle invocation. Handle adapters report wrong bean or value with
+         * ClassCastException or NullPointerException, such errors are translated to IllegalArgumentException
+         * like reflection does, exceptions of the member itself are rethrown as is.
+         */
+        private static void rethrow(Throwable e, Object bean, AccessibleObject member) {
+            if((e instanceof ClassCastException || e instanceof NullPointerException)
+                    && bean != null && !((Member) member).getDeclaringClass().isInstance(bean))
+                throw new IllegalArgumentException("object is not an instance of declaring class", e);
+            Utils.uncheckedThrow(e);
+        }
+
+        private static void rethrow(Throwable e, Object bean, AccessibleObject member, Object value) {
+            if(e instanceof ClassCastException || e instanceof NullPointerException) {
+                Class<?> type = member instanceof Field ? ((Field) member).getType() : ((Method) member).getParameterTypes()[0];
+                if(value == null ? type.isPrimitive() : !Utils.wrap(type).isInstance(value))
+                    throw new IllegalArgumentException("argument type mismatch", e);
+            }
+            rethrow(e, bean, member);
+        }
+
+        @Override
+        public Object get(Object bean) {
+            if(getter == null) throw notReadable();
+            try {
+                return (Object) getter.invokeExact(bean);
+            } catch (Throwable e) {
+                rethrow(e, bean, reader);
+            }
+            return null;//should not executed
+        }
+
+        @Override
+        public void set(Object bean, Object value) {
+            if(setter == null) throw notWritable();
+            try {
+                setter.invokeExact(bean, value);
+            } catch (Throwable e) {
+                rethrow(e, bean, writer, value);
+            }
+        }
+
+        @Override
+        public int getInt(Object bean) {
+            if(primitiveType != int.class || primitiveGetter == null) return super.getInt(bean);
+            try {
+                return (int) primitiveGetter.invokeExact(bean);
+            } catch (Throwable e) {
+                rethrow(e, bean, reader);
+            }
+            return 0;//should not executed
+        }
+
+        @Override
+        public long getLong(Object bean) {
+            if(primitiveType != long.class || primitiveGetter == null) return super.getLong(bean);
+            try {
+                return (long) primitiveGetter.invokeExact(bean);
+            } catch (Throwable e) {
+                rethrow(e, bean, reader);
+            }
+            return 0;//should not executed
+        }
+
+        @Override
+        public double getDouble(Object bean) {
+            if(primitiveType != double.class || primitiveGetter == null) return super.getDouble(bean);
+            try {
+                return (double) primitiveGetter.invokeExact(bean);
+            } catch (Throwable e) {
+                rethrow(e, bean, reader);
+            }
+            return 0;//should not executed
+        }
+
+        @Override
+        public boolean getBoolean(Object bean) {
+            if(primitiveType != boolean.class || primitiveGetter == null) return super.getBoolean(bean);
+            try {
+                return (boolean) primitiveGetter.invokeExact(bean);
+            } catch (Throwable e) {
+                rethrow(e, bean, reader);
+            }
+            return false;//should not executed
+        }
+
+        @Override
+        public void setInt(Object bean, int value) {
+            if(primitiveType != int.class || primitiveSetter == null) {
+                super.setInt(bean, value);
+                return;
+            }
+            try {
+                primitiveSetter.invokeExact(bean, value);
+            } catch (Throwable e) {
+                rethrow(e, bean, writer);
+            }
+        }
+
+        @Override
+        public void setLong(Object bean, long value) {
+            if(primitiveType != long.class || primitiveSetter == null) {
+                super.setLong(bean, value);
+                return;
+            }
+            try {
+                primitiveSetter.invokeExact(bean, value);
+            } catch (Throwable e) {
+                rethrow(e, bean, writer);
+            }
+        }
+
+        @Override
+        public void setDouble(Object bean, double value) {
+            if(primitiveType != double.class || primitiveSetter == null) {
+                super.setDouble(bean, value);
+                return;
+            }
+            try {
+                primitiveSetter.invokeExact(bean, value);
+            } catch (Throwable e) {
+                rethrow(e, bean, writer);
+            }
+        }
+
+        @Override
+        public void setBoolean(Object bean, boolean value) {
+            if(primitiveType != boolean.class || primitiveSetter == null) {
+                super.setBoolean(bean, value);
+                return;
+            }
+            try {
+                primitiveSetter.invokeExact(bean, value);
+            } catch (Throwable e) {
+                rethrow(e, bean, writer);
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2015 Artem Mironov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jeesy.classinfo;
+
+/**
+ * Read and write functions of a single property.
+ * This implementation delegates to {@link PropertyAccessor} of the property.
+ * Runtime generated subclasses override it with direct calls of property members
+ * so call site becomes monomorphic and can be inlined by JIT.
+ * @author Artem Mironov
+ */
+public class PropertyFunction<Bean, PropertyType> implements PropertyGetter<Bean, PropertyType>, PropertySetter<Bean, PropertyType> {
+    protected final PropertyInfo<PropertyType> info;
+
+    protected PropertyFunction(PropertyInfo<PropertyType> info) {
+        this.info = info;
+    }
+
+    public PropertyInfo<PropertyType> getInfo() {
+        return info;
+    }
+
+    @Override
+    public PropertyType get(Bean bean) {
+        return info.getValue(bean);
+    }
+
+    @Override
+    public void set(Bean bean, PropertyType value) {
+        info.setValue(bean, value);
+    }
+}
@@ -28,6 +28,9 @@ public class PropertyInfo<PropertyType> extends AnnotatedNode.BaseAnnotatedNode
     protected Method readMethod;
     protected Field field;
     protected ClassInfo enclosingClass;
+    protected int ordinal = -1;
+    protected volatile PropertyAccessor accessor;
+    protected volatile PropertyFunction<?, PropertyType> function;
 
     PropertyInfo(String name, Class<PropertyType> type, ClassInfo enclosingClass) {
         this.enclosingClass = enclosingClass;
@@ -44,6 +47,16 @@ public class PropertyInfo<PropertyType> extends AnnotatedNode.BaseAnnotatedNode
         readMethod = other.readMethod;
         writeMethod = other.writeMethod;
         writeMethods = new HashMap<>(other.writeMethods);
+        ordinal = other.ordinal;
+    }
+
+    /**
+     * Dense ordinal of this property in class info.
+     * Ordinals of inherited properties are the same in parent and child classes.
+     * @see ClassInfo#getProperty(int)
+     */
+    public int getOrdinal() {
+        return ordinal;
     }
 
     private static final Set<Class> BASIC_TYPES = new HashSet<Class>() {{
@@ -76,41 +89,7 @@ public class PropertyInfo<PropertyType> extends AnnotatedNode.BaseAnnotatedNode
      */
     @SuppressWarnings("unchecked")
     public PropertyType getValue(final Object bean) {
-        try {
-            if (readMethod != null) {
-                boolean accessible = readMethod.isAccessible();
-                readMethod.setAccessible(true);
-                PropertyType res = (PropertyType) readMethod.invoke(bean);
-                readMethod.setAccessible(accessible);
-                return res;
-            }
-            else if (field != null && publicOrProtected(field.getModifiers())) {
-                boolean accessible = field.isAccessible();
-                field.setAccessible(true);
-                PropertyType res = (PropertyType) field.get(bean);
-                field.setAccessible(accessible);
-                return res;
-            } else throw new IllegalStateException("Property "+name+" is not readable");
-
-        } catch(IllegalAccessException e) {
-            Utils.uncheckedThrow(e);
-        } catch(InvocationTargetException e) {
-            Utils.uncheckedThrow(e.getTargetException());
-        }
-        return null;//should not executed
-    }
-
-    private void invokeSetter(Method method, Object bean, Object val) {
-        try {
-            boolean accessible = method.isAccessible();
-            method.setAccessible(true);
-            method.invoke(bean, val);
-            method.setAccessible(accessible);
-        } catch (IllegalAccessException e) {
-            Utils.uncheckedThrow(e);
-        } catch (InvocationTargetException e) {
-            Utils.uncheckedThrow(e.getTargetException());
-        }
+        return (PropertyType) getAccessor().get(bean);
     }
 
     /**
@@ -119,18 +98,126 @@ public class PropertyInfo<PropertyType> extends AnnotatedNode.BaseAnnotatedNode
      * @param val value to set
      */
     public void setValue(Object bean, final PropertyType val) {
-        try {
-             if (writeMethod != null) {
-                 invokeSetter(writeMethod, bean ,val);
-            } else if (field != null && publicOrProtected(field.getModifiers())) {
-                boolean accessible = field.isAccessible();
-                field.setAccessible(true);
-                field.set(bean, val);
-                field.setAccessible(accessible);
-            } else throw new IllegalStateException("Property "+name+" is not writable");
-        } catch(IllegalAccessException e) {
-            Utils.uncheckedThrow(e);
+        getAccessor().set(bean, val);
+    }
+
+    /**
+     * Get value of int or {@link Integer} property without boxing for primitive properties.
+     * @throws IllegalArgumentException if property has another type
+     */
+    public int getInt(final Object bean) {
+        checkPrimitiveType(int.class);
+        return getAccessor().getInt(bean);
+    }
+
+    /**
+     * Get value of long or {@link Long} property without boxing for primitive properties.
+     * @throws IllegalArgumentException if property has another type
+     */
+    public long getLong(final Object bean) {
+        checkPrimitiveType(long.class);
+        return getAccessor().getLong(bean);
+    }
+
+    /**
+     * Get value of double or {@link Double} property without boxing for primitive properties.
+     * @throws IllegalArgumentException if property has another type
+     */
+    public double getDouble(final Object bean) {
+        checkPrimitiveType(double.class);
+        return getAccessor().getDouble(bean);
+    }
+
+    /**
+     * Get value of boolean or {@link Boolean} property without boxing for primitive properties.
+     * @throws IllegalArgumentException if property has another type
+     */
+    public boolean getBoolean(final Object bean) {
+        checkPrimitiveType(boolean.class);
+        return getAccessor().getBoolean(bean);
+    }
+
+    /**
+     * Set value of int or {@link Integer} property without boxing for primitive properties.
+     * @throws IllegalArgumentException if property has another type
+     */
+    public void setInt(final Object bean, int val) {
+        checkPrimitiveType(int.class);
+        getAccessor().setInt(bean, val);
+    }
+
+    /**
+     * Set value of long or {@link Long} property without boxing for primitive properties.
+     * @throws IllegalArgumentException if property has another type
+     */
+    public void setLong(final Object bean, long val) {
+        checkPrimitiveType(long.class);
+        getAccessor().setLong(bean, val);
+    }
+
+    /**
+     * Set value of double or {@link Double} property without boxing for primitive properties.
+     * @throws IllegalArgumentException if property has another type
+     */
+    public void setDouble(final Object bean, double val) {
+        checkPrimitiveType(double.class);
+        getAccessor().setDouble(bean, val);
+    }
+
+    /**
+     * Set value of boolean or {@link Boolean} property without boxing for primitive properties.
+     * @throws IllegalArgumentException if property has another type
+     */
+    public void setBoolean(final Object bean, boolean val) {
+        checkPrimitiveType(boolean.class);
+        getAccessor().setBoolean(bean, val);
+    }
+
+    private void checkPrimitiveType(Class<?> primitive) {
+        if(type != primitive && type != Utils.wrap(primitive))
+            throw new IllegalArgumentException("Property "+name+" of type "+type.getName()+" is not "+primitive.getName());
+    }
+
+    /**
+     * Accessor bound to this property by {@link ClassInfoScanner.AccessBehaviour}
+     */
+    public PropertyAccessor getAccessor() {
+        PropertyAccessor res = accessor;
+        if(res == null) {
+            res = enclosingClass.getScanner().getAccessBehaviour().createAccessor(this);
+            accessor = res;
+        }
+        return res;
+    }
+
+    /**
+     * Typed read function of this property.
+     * Function is generated on first request and cached, it calls read method or field directly
+     * if they are accessible from generated code and delegates to {@link #getAccessor()} otherwise.
+     * @param <Bean> type of the bean what contains this property
+     */
+    @SuppressWarnings("unchecked")
+    public <Bean> PropertyGetter<Bean, PropertyType> getter() {
+        return (PropertyGetter<Bean, PropertyType>) getFunction();
+    }
+
+    /**
+     * Typed write function of this property.
+     * @see #getter()
+     * @param <Bean> type of the bean what contains this property
+     */
+    @SuppressWarnings("unchecked")
+    public <Bean> PropertySetter<Bean, PropertyType> setter() {
+        return (PropertySetter<Bean, PropertyType>) getFunction();
+    }
+
+    private PropertyFunction<?, PropertyType> getFunction() {
+        PropertyFunction<?, PropertyType> res = function;
+        if(res == null) {
+            res = AccessorGenerator.generateFunction(this);
+            function = res;
         }
+        return res;
     }
 
     /**
@@ -157,7 +244,7 @@ public class PropertyInfo<PropertyType> extends AnnotatedNode.BaseAnnotatedNode
         else return (TypeInfo<PropertyType>) TypeInfo.forType(genericType, this);
     }
 
-    private static boolean publicOrProtected(int modifiers) {
+    static boolean publicOrProtected(int modifiers) {
         return (modifiers & (Modifier.PUBLIC | Modifier.PROTECTED)) != 0;
     }
 
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2015 Artem Mironov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jeesy.classinfo;
+
+/**
+ * Open addressing table from property name to ordinal.
+ * Lookup accepts any char sequence or char array slice and compares characters in place,
+ * so parsers can resolve property names directly from their buffers without creating strings.
+ * @author Artem Mironov
+ */
+final class PropertyNameTable {
+    private final String[] names;
+    private final int[] ordinals;
+    private final int mask;
+
+    PropertyNameTable(PropertyInfo[] properties) {
+        int capacity = 2;
+        while(capacity < properties.length * 2) capacity <<= 1;
+        names = new String[capacity];
+        ordinals = new int[capacity];
+        mask = capacity - 1;
+        for(PropertyInfo pi : properties) {
+            String name = pi.getName();
+            int slot = spread(name.hashCode()) & mask;
+            while(names[slot] != null) slot = (slot + 1) & mask;
+            names[slot] = name;
+            ordinals[slot] = pi.getOrdinal();
+        }
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Same hash as {@link String#hashCode()} computed over char sequence
+     */
+    private static int hash(CharSequence s) {
+        if(s instanceof String) return s.hashCode();
+        int h = 0;
+        for(int i = 0; i < s.length(); i++) h = 31 * h + s.charAt(i);
+        return h;
+    }
+
+    private static int hash(char[] buf, int offset, int length) {
+        int h = 0;
+        for(int i = offset, end = offset + length; i < end; i++) h = 31 * h + buf[i];
+        return h;
+    }
+
+    /**
+     * @return ordinal of property with specified name or -1 if not found
+     */
+    int ordinalOf(CharSequence name) {
+        int slot = spread(hash(name)) & mask;
+        String candidate;
+        while((candidate = names[slot]) != null) {
+            if(matches(candidate, name)) return ordinals[slot];
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * @return ordinal of property with name equal to specified chars or -1 if not found
+     */
+    int ordinalOf(char[] buf, int offset, int length) {
+        int slot = spread(hash(buf, offset, length)) & mask;
+        String candidate;
+        while((candidate = names[slot]) != null) {
+            if(matches(candidate, buf, offset, length)) return ordinals[slot];
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private static boolean matches(String candidate, CharSequence name) {
+        if(name instanceof String) return candidate.equals(name);
+        int len = candidate.length();
+        if(len != name.length()) return false;
+        for(int i = 0; i < len; i++)
+            if(candidate.charAt(i) != name.charAt(i)) return false;
+        return true;
+    }
+
+    private static boolean matches(String candidate, char[] buf, int offset, int length) {
+        if(candidate.length() != length) return false;
+        for(int i = 0; i < length; i++)
+            if(candidate.charAt(i) != buf[offset + i]) return false;
+        return true;
+    }
+}
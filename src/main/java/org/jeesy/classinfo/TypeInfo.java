@@ -32,6 +32,8 @@ import java.lang.reflect.TypeVariable;
 import java.lang.reflect.WildcardType;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Represents a generic type {@code T}. Java doesn't yet provide a way to
@@ -60,6 +62,21 @@ import java.util.List;
  * //size: header + 4*4 = 24b
  */
 public class TypeInfo<T> {
+    /**
+     * Canonical type infos without annotated node for plain classes
+     */
+    private static final ClassValue<TypeInfo<?>> CLASS_CACHE = new ClassValue<TypeInfo<?>>() {
+        @Override
+        protected TypeInfo<?> computeValue(Class<?> type) {
+            return new TypeInfo<>(type);
+        }
+    };
+    /**
+     * Canonical type infos without annotated node for generic types keyed by canonicalized type.
+     * Size is limited to not hold types created dynamically forever.
+     */
+    private static final ConcurrentMap<Type, TypeInfo<?>> TYPE_CACHE = new ConcurrentHashMap<>();
+    private static final int TYPE_CACHE_LIMIT = 4096;
 
     final Class<T> rawType;
     final Type type;
@@ -195,10 +212,22 @@ public class TypeInfo<T> {
     }
 
     /**
-     * Create new type info for given {@code Type}
+     * Get shared type info for given {@code Type}
      */
     public static TypeInfo<?> forType(Type type) {
-        return new TypeInfo<Object>(type);
+        if(type instanceof Class) return forClass((Class<?>) type);
+        TypeInfo<?> res = TYPE_CACHE.get(requireNonNull(type, "type"));
+        if(res != null) return res;
+        Type canonical = canonicalize(type);
+        res = TYPE_CACHE.get(canonical);
+        if(res == null) {
+            res = new TypeInfo<Object>(canonical);
+            if(TYPE_CACHE.size() < TYPE_CACHE_LIMIT) {
+                TypeInfo<?> prev = TYPE_CACHE.putIfAbsent(res.type, res);
+                if(prev != null) res = prev;
+            }
+        }
+        return res;
     }
 
     /**
@@ -209,10 +238,11 @@ public class TypeInfo<T> {
     }
 
     /**
-     * Create new type info for given {@code Type}
+     * Get shared type info for given class
      */
+    @SuppressWarnings("unchecked")
     public static <T> TypeInfo<T> forClass(Class<T> type) {
-        return new TypeInfo<T>(type);
+        return (TypeInfo<T>) CLASS_CACHE.get(type);
     }
 
     /**
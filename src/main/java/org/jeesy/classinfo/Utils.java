@@ -15,6 +15,14 @@
  */
 package org.jeesy.classinfo;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+
 /**
  *
  * @author Artem Mironov
@@ -47,6 +55,40 @@ public class Utils {
     }
 
 
+    /**
+     * Returns wrapper class for primitive type or type itself for non primitive one
+     */
+    public static Class<?> wrap(Class<?> type) {
+        if(!type.isPrimitive()) return type;
+        if(type == int.class) return Integer.class;
+        if(type == long.class) return Long.class;
+        if(type == boolean.class) return Boolean.class;
+        if(type == double.class) return Double.class;
+        if(type == float.class) return Float.class;
+        if(type == short.class) return Short.class;
+        if(type == byte.class) return Byte.class;
+        if(type == char.class) return Character.class;
+        return Void.class;
+    }
+
+    /**
+     * Class itself, its superclasses, then all interfaces in breadth first order and {@code Object}.
+     * Types earlier in the list are more specific for the class.
+     */
+    public static List<Class<?>> hierarchy(Class<?> type) {
+        if(type.isPrimitive()) return Collections.<Class<?>>singletonList(type);
+        Set<Class<?>> res = new LinkedHashSet<>();
+        for(Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass())
+            res.add(c);
+        Queue<Class<?>> queue = new ArrayDeque<>(res);
+        while(!queue.isEmpty()) {
+            for(Class<?> i : queue.poll().getInterfaces())
+                if(res.add(i)) queue.add(i);
+        }
+        res.add(Object.class);
+        return new ArrayList<>(res);
+    }
+
     public static String decapitalize(String val) {
         if (val == null || val.length() == 0) {
             return val;
@@ -16,12 +16,24 @@
 package org.jeesy.classinfo.converter;
 
 import org.jeesy.classinfo.TypeInfo;
+import org.jeesy.classinfo.Utils;
 import org.jeesy.classinfo.converter.api.*;
 import org.jeesy.classinfo.converter.impl.ChainableConversionService;
+import org.jeesy.classinfo.converter.impl.ChainedConverter;
+import org.jeesy.classinfo.converter.impl.EnumConverter;
 
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.RandomAccess;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static java.util.Objects.requireNonNull;
 
@@ -30,12 +42,33 @@ import static java.util.Objects.requireNonNull;
  * Can be created for particular area of functionality to convert from/to string on demand.
  * Briefly it have mapping expectedType->converter instance and single fallback converter.
  * Client requests converter by src and dst types via {@link #converterFor(Class, Class)}
- * and if no such converter registered fallback will be returned.
+ * and if no such converter registered for types or their supertypes fallback will be returned.
  * {@link DefaultConverter} is the default fallback.
  * @author Artem Mironov
  */
-public class ConverterManager extends ChainableConversionService implements ConverterRegistry, Converter<Object, Object>, ConversionService, StringConverter {
-    private Map<ConverterKey, Converter> converters = new ConcurrentHashMap<>();
+public class ConverterManager extends ChainableConversionService implements ConverterRegistry, Converter<Object, Object>, ConversionService, ConversionWriter, TryConversionService, StringConverter {
+    /**
+     * Registered converters by source class and then by destination class
+     */
+    private final ConcurrentMap<Class<?>, ConcurrentMap<Class<?>, Converter>> converters = new ConcurrentHashMap<>();
+    /**
+     * Memoized result of {@link #resolve(Class, Class)} for concrete pairs, replaced on each registration
+     */
+    private volatile ConcurrentMap<Class<?>, ConcurrentMap<Class<?>, Converter>> resolved = new ConcurrentHashMap<>();
+    /**
+     * Maximal number of converters in chain built by {@link #resolvePath(Class, Class)}
+     */
+    private static final int MAX_PATH_LENGTH = 4;
+    private static final EnumConverter ENUM_PARSER = new EnumConverter();
+    /**
+     * Marker of pair what has no registered converter. Stored in memo only, {@link #converterFor(Class, Class)} returns fallback instead.
+     */
+    private static final Converter<Object, Object> NONE = new Converter<Object, Object>() {
+        @Override
+        public Object convert(Object src, TypeInfo<Object> srcType, TypeInfo<Object> dstType) throws ConversionException {
+            throw new ConversionException(src, srcType, dstType, "No converter registered");
+        }
+    };
 
     private ConverterCache byClassCache = new ConverterCache();
 
@@ -50,21 +83,31 @@ public class ConverterManager extends ChainableConversionService implements Conv
     @SuppressWarnings("unchecked")
     @Override
     public <SrcType, DstType> Converter<SrcType, DstType> converterFor(Class<SrcType> srcType, Class<DstType> dstType) {
-        Converter <SrcType, DstType> res = converters.get(new ConverterKey<>(srcType, dstType));
+        ConcurrentMap<Class<?>, ConcurrentMap<Class<?>, Converter>> cache = resolved;
+        Converter res = get(cache, srcType, dstType);
         if(res == null) {
+            res = resolve(srcType, dstType);
+            if(res == null) res = NONE;
+            put(cache, srcType, dstType, res);
+        }
+        if(res == NONE) {
             return (Converter<SrcType, DstType>) getFallback();
         } else return res;
     }
 
     @Override
     public <SrcType, DstType> void register(Class<SrcType> srcType, Class<DstType> dstType, Converter<SrcType, DstType> converter) {
-        converters.put(new ConverterKey<>(srcType, dstType), converter);
+        put(converters, srcType, dstType, converter);
+        resolved = new ConcurrentHashMap<>();
+        changed();
     }
 
     @Override
     public <SrcType, DstType> void register(Class<SrcType> srcType, Class<DstType> dstType, TwoWayConverter<SrcType, DstType> converter) {
-        converters.put(new ConverterKey<>(srcType, dstType), converter.getDirect());
-        converters.put(new ConverterKey<>(dstType, srcType), converter.getReverse());
+        put(converters, srcType, dstType, converter.getDirect());
+        put(converters, dstType, srcType, converter.getReverse());
+        resolved = new ConcurrentHashMap<>();
+        changed();
     }
 
     @Override
@@ -91,28 +134,161 @@ public class ConverterManager extends ChainableConversionService implements Conv
         return converter.convert(src, srcType, dstType);
     }
 
-    private static class ConverterKey<SrcType, DstType> {
-        Class<SrcType> srcType;
-        Class<DstType> dstType;
+    @SuppressWarnings("unchecked")
+    @Override
+    public <I, O> boolean tryConvertType(I src, TypeInfo<I> srcType, TypeInfo<O> dstType, ConversionResult<O> result) {
+        Converter<I, O> converter = converterFor(srcType.getRawType(), dstType.getRawType());
+        if(converter instanceof TryConverter) {
+            return ((TryConverter<I, O>) converter).tryConvert(src, srcType, dstType, result);
+        } else if(converter instanceof TryConversionService) {
+            return ((TryConversionService) converter).tryConvertType(src, srcType, dstType, result);
+        }
+        try {
+            result.success(converter.convert(src, srcType, dstType));
+            return true;
+        } catch (ConversionException e) {
+            result.failure(e.getMessage());
+            return false;
+        }
+    }
 
-        public ConverterKey(Class<SrcType> srcType, Class<DstType> dstType) {
-            this.srcType = srcType;
-            this.dstType = dstType;
+    /**
+     * Convert all elements of source array with converter resolved once for the pair of types.
+     * @param src source values
+     * @param srcType type of each source value
+     * @param dstType type of each destination value
+     * @param dst array to store result into if it has enough length otherwise new array will be allocated
+     * @return array with converted values at the same positions as in source
+     */
+    @SuppressWarnings("unchecked")
+    public <I, O> O[] convertAll(I[] src, TypeInfo<I> srcType, TypeInfo<O> dstType, O[] dst) throws ConversionException {
+        if(dst == null || dst.length < src.length) {
+            Class<?> componentType = dst != null ? dst.getClass().getComponentType() : Utils.wrap(dstType.getRawType());
+            dst = (O[]) Array.newInstance(componentType, src.length);
         }
+        Converter<I, O> converter = converterFor(srcType.getRawType(), dstType.getRawType());
+        for(int i = 0; i < src.length; i++)
+            dst[i] = converter.convert(src[i], srcType, dstType);
+        return dst;
+    }
 
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (!(o instanceof ConverterKey)) return false;
-            ConverterKey<?, ?> that = (ConverterKey<?, ?>) o;
-            return Objects.equals(srcType, that.srcType) &&
-                    Objects.equals(dstType, that.dstType);
+    /**
+     * Convert all elements of source list with converter resolved once for the pair of types.
+     * @return new list with converted values in the same order
+     */
+    public <I, O> List<O> convertAll(List<? extends I> src, TypeInfo<I> srcType, TypeInfo<O> dstType) throws ConversionException {
+        Converter<I, O> converter = converterFor(srcType.getRawType(), dstType.getRawType());
+        List<O> res = new ArrayList<>(src.size());
+        if(src instanceof RandomAccess) {
+            for(int i = 0; i < src.size(); i++)
+                res.add(converter.convert(src.get(i), srcType, dstType));
+        } else {
+            for(I value : src)
+                res.add(converter.convert(value, srcType, dstType));
         }
+        return res;
+    }
 
-        @Override
-        public int hashCode() {
-            return Objects.hash(srcType, dstType);
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> void write(TypeInfo<T> type, T value, Appendable out) throws IOException, ConversionException {
+        Converter converter = converterFor(type.getRawType(), String.class);
+        if(converter instanceof AppendableSerializer) {
+            ((AppendableSerializer<T>) converter).serialize(value, type, out);
+        } else if(converter instanceof ConversionWriter) {
+            ((ConversionWriter) converter).write(type, value, out);
+        } else {
+            Object res = converter.convert(value, type, TypeInfo.forClass(String.class));
+            if(res != null) out.append((String) res);
+        }
+    }
+
+    /**
+     * Find registered converter for exact pair of classes
+     */
+    @SuppressWarnings("unchecked")
+    protected <SrcType, DstType> Converter<SrcType, DstType> lookup(Class<SrcType> srcType, Class<DstType> dstType) {
+        return get(converters, srcType, dstType);
+    }
+
+    /**
+     * Search registered converter for source class or its supertypes and exactly destination class.
+     * Source is matched by itself, its superclasses, interfaces in breadth first order and {@code Object}.
+     * Converters registered for destination supertypes are not used: they may produce value of other subtype.
+     * Strings without registered converter to enum are converted by {@link EnumConverter}.
+     * @return converter or null if nothing registered
+     */
+    protected Converter<?, ?> resolve(Class<?> srcType, Class<?> dstType) {
+        for(Class<?> src : Utils.hierarchy(srcType)) {
+            Converter<?, ?> res = lookup(src, dstType);
+            if(res != null) return res;
         }
+        Converter<?, ?> res = resolvePath(srcType, dstType);
+        if(res == null && srcType == String.class && dstType.isEnum()) res = ENUM_PARSER;
+        return res;
+    }
+
+    /**
+     * Treat registered converters as graph edges between classes and find shortest chain
+     * from source to exactly destination class. Value produced by each step can be passed to converter
+     * registered for any supertype of step destination.
+     * Edges to destination supertypes are not accepted: for {@code Object}, interfaces or abstract classes
+     * the result would depend on iteration order of registered converters.
+     * @return single converter, composed {@link ChainedConverter} or null if there is no path
+     */
+    protected Converter<?, ?> resolvePath(Class<?> srcType, Class<?> dstType) {
+        Map<Class<?>, Class<?>> prevNode = new HashMap<>();
+        Map<Class<?>, Converter> prevEdge = new HashMap<>();
+        prevNode.put(srcType, null);
+        List<Class<?>> level = Collections.<Class<?>>singletonList(srcType);
+        for(int depth = 0; depth < MAX_PATH_LENGTH && !level.isEmpty(); depth++) {
+            List<Class<?>> next = new ArrayList<>();
+            for(Class<?> node : level) {
+                for(Class<?> from : Utils.hierarchy(node)) {
+                    Map<Class<?>, Converter> edges = converters.get(from);
+                    if(edges == null) continue;
+                    for(Map.Entry<Class<?>, Converter> edge : edges.entrySet()) {
+                        Class<?> to = edge.getKey();
+                        if(prevNode.containsKey(to)) continue;
+                        prevNode.put(to, node);
+                        prevEdge.put(to, edge.getValue());
+                        if(to == dstType) return buildPath(to, prevNode, prevEdge);
+                        next.add(to);
+                    }
+                }
+            }
+            level = next;
+        }
+        return null;
+    }
+
+    private static Converter<?, ?> buildPath(Class<?> last, Map<Class<?>, Class<?>> prevNode, Map<Class<?>, Converter> prevEdge) {
+        List<Converter> steps = new ArrayList<>();
+        List<Class<?>> types = new ArrayList<>();
+        for(Class<?> node = last; prevNode.get(node) != null; node = prevNode.get(node)) {
+            steps.add(prevEdge.get(node));
+            types.add(node);
+        }
+        if(steps.size() == 1) return steps.get(0);
+        Collections.reverse(steps);
+        Collections.reverse(types);
+        return new ChainedConverter(steps.toArray(new Converter[steps.size()]), types.subList(0, types.size() - 1).toArray(new Class[types.size() - 1]));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <SrcType, DstType> Converter<SrcType, DstType> get(Map<Class<?>, ConcurrentMap<Class<?>, Converter>> table, Class<SrcType> srcType, Class<DstType> dstType) {
+        Map<Class<?>, Converter> byDst = table.get(srcType);
+        return byDst == null ? null : byDst.get(dstType);
+    }
+
+    private static void put(ConcurrentMap<Class<?>, ConcurrentMap<Class<?>, Converter>> table, Class<?> srcType, Class<?> dstType, Converter<?, ?> converter) {
+        ConcurrentMap<Class<?>, Converter> byDst = table.get(srcType);
+        if(byDst == null) {
+            ConcurrentMap<Class<?>, Converter> newByDst = new ConcurrentHashMap<>();
+            byDst = table.putIfAbsent(srcType, newByDst);
+            if(byDst == null) byDst = newByDst;
+        }
+        byDst.put(dstType, converter);
     }
 
     /**
@@ -132,6 +308,37 @@ public class ConverterManager extends ChainableConversionService implements Conv
         return convertType(value, TypeInfo.forClass(String.class), type);
     }
 
+    /**
+     * Parse value from part of UTF-8 encoded bytes. If converter from string is {@link ByteParser}
+     * value is parsed without creating string.
+     */
+    public <T> T fromBytes(final TypeInfo<T> type, final byte[] buf, final int offset, final int length) throws ConversionException {
+        ByteParser<T> parser = parserFor(type);
+        if(parser != null) return parser.parse(buf, offset, length, type);
+        return fromString(type, new String(buf, offset, length, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parse value from part of UTF-8 encoded byte buffer. Position and limit of the buffer are not changed.
+     * @see #fromBytes(TypeInfo, byte[], int, int)
+     */
+    public <T> T fromBytes(final TypeInfo<T> type, final ByteBuffer buf, final int offset, final int length) throws ConversionException {
+        ByteParser<T> parser = parserFor(type);
+        if(parser != null) return parser.parse(buf, offset, length, type);
+        byte[] bytes = new byte[length];
+        ByteBuffer view = buf.duplicate();
+        view.limit(offset + length).position(offset);
+        view.get(bytes);
+        return fromString(type, new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> ByteParser<T> parserFor(TypeInfo<T> type) {
+        Converter<String, T> converter = converterFor(String.class, type.getRawType());
+        if(converter instanceof ByteParser) return (ByteParser<T>) converter;
+        return null;
+    }
+
     public <T> String toString(TypeInfo<T> type, final T value) throws ConversionException {
         return (String) convert(value, (TypeInfo)type, (TypeInfo)TypeInfo.forClass(String.class));
     }
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2015 Artem Mironov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jeesy.classinfo.converter.api;
+
+import org.jeesy.classinfo.TypeInfo;
+
+import java.io.IOException;
+
+/**
+ * Converter to string what can write result directly to output
+ * @author Artem Mironov
+ */
+public interface AppendableSerializer<T> extends StringSerializer<T> {
+    /**
+     * Write string representation of the value to output without creating intermediate string
+     * @param src value to write
+     * @param srcType type of value
+     * @param out output
+     * @throws IOException if output fails
+     */
+    void serialize(T src, TypeInfo<T> srcType, Appendable out) throws IOException, ConversionException;
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2015 Artem Mironov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jeesy.classinfo.converter.api;
+
+import org.jeesy.classinfo.TypeInfo;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Converter from string what can parse value directly from UTF-8 encoded bytes without creating string
+ * @author Artem Mironov
+ */
+public interface ByteParser<T> extends StringParser<T> {
+    /**
+     * Parse value from part of byte array
+     * @param buf UTF-8 encoded text
+     * @param offset index of first byte of value
+     * @param length number of bytes in value
+     * @param dstType type of value
+     */
+    T parse(byte[] buf, int offset, int length, TypeInfo<T> dstType) throws ConversionException;
+
+    /**
+     * Parse value from part of byte buffer. Position and limit of buffer are not changed.
+     * @param buf UTF-8 encoded text
+     * @param offset absolute index of first byte of value
+     * @param length number of bytes in value
+     * @param dstType type of value
+     */
+    T parse(ByteBuffer buf, int offset, int length, TypeInfo<T> dstType) throws ConversionException;
+}
@@ -19,11 +19,14 @@ import org.jeesy.classinfo.TypeInfo;
 
 
 /**
- * Exception what can be thrown from converters
+ * Exception what can be thrown from converters.
+ * Message is generated on first request.
  */
 public class ConversionException extends RuntimeException {
     private TypeInfo<?> srcType;
     private TypeInfo<?> dstType;
+    private final Object value;
+    private final String message;
     private String msg;
 
     private String generateMessage(Object value, String message) {
@@ -54,10 +57,18 @@ public class ConversionException extends RuntimeException {
     }
 
     public ConversionException(Object src, TypeInfo<?> srcType, TypeInfo<?> dstType, String message, Throwable cause) {
-        super(cause);
+        this(src, srcType, dstType, message, cause, true);
+    }
+
+    /**
+     * @param writableStackTrace if false stack trace is not captured what makes exception cheap to create
+     */
+    public ConversionException(Object src, TypeInfo<?> srcType, TypeInfo<?> dstType, String message, Throwable cause, boolean writableStackTrace) {
+        super(null, cause, true, writableStackTrace);
         this.srcType = srcType;
         this.dstType = dstType;
-        msg = generateMessage(src, message);
+        this.value = src;
+        this.message = message;
     }
 
     public ConversionException(Object src, TypeInfo<?> srcType, TypeInfo<?> dstType, Throwable cause) {
@@ -70,6 +81,7 @@ public class ConversionException extends RuntimeException {
 
     @Override
     public String getMessage() {
+        if(msg == null) msg = generateMessage(value, message);
         return msg;
     }
 }
\ No newline at end of file
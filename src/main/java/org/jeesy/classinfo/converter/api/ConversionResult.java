@@ -0,0 +1,74 @@
+/*
+ * Copyright 2015 Artem Mironov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jeesy.classinfo.converter.api;
+
+/**
+ * Mutable holder of conversion result used to report failures without exceptions.
+ * Can be reused for many conversions by the same thread.
+ * @author Artem Mironov
+ */
+public class ConversionResult<T> {
+    private T value;
+    private boolean success;
+    private String failure;
+
+    /**
+     * Store converted value
+     * @return this result
+     */
+    public ConversionResult<T> success(T value) {
+        this.value = value;
+        this.success = true;
+        this.failure = null;
+        return this;
+    }
+
+    /**
+     * Mark conversion failed
+     * @param reason short description of failure, expected to be constant to not allocate anything
+     * @return this result
+     */
+    public ConversionResult<T> failure(String reason) {
+        this.value = null;
+        this.success = false;
+        this.failure = reason;
+        return this;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    /**
+     * @return converted value or null if conversion failed
+     */
+    public T getValue() {
+        return value;
+    }
+
+    /**
+     * @return reason of failure or null
+     */
+    public String getFailure() {
+        return failure;
+    }
+
+    public void reset() {
+        value = null;
+        success = false;
+        failure = null;
+    }
+}
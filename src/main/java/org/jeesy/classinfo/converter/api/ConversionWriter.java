@@ -0,0 +1,36 @@
+/*
+ * Copyright 2015 Artem Mironov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jeesy.classinfo.converter.api;
+
+import org.jeesy.classinfo.TypeInfo;
+
+import java.io.IOException;
+
+/**
+ * Conversion service what can write values as strings directly to output
+ * @author Artem Mironov
+ */
+public interface ConversionWriter {
+    /**
+     * Convert value to string writing it to output. If converter is {@link AppendableSerializer} it writes
+     * directly to output otherwise result of conversion to string is appended. Null result writes nothing.
+     * @param type type of value
+     * @param value value to write
+     * @param out output
+     * @throws IOException if output fails
+     */
+    <T> void write(TypeInfo<T> type, T value, Appendable out) throws IOException, ConversionException;
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2015 Artem Mironov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jeesy.classinfo.converter.api;
+
+import org.jeesy.classinfo.TypeInfo;
+
+/**
+ * Conversion service what can report invalid source value without throwing {@link ConversionException}
+ * @author Artem Mironov
+ */
+public interface TryConversionService {
+    /**
+     * Convert source value reporting invalid value through result instead of {@link ConversionException}.
+     * Conversion is done without exceptions if converter for the pair of types is {@link TryConverter}.
+     * @param result holder of converted value or failure
+     * @return true if conversion succeed
+     */
+    <I, O> boolean tryConvertType(I src, TypeInfo<I> srcType, TypeInfo<O> dstType, ConversionResult<O> result);
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2015 Artem Mironov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jeesy.classinfo.converter.api;
+
+import org.jeesy.classinfo.TypeInfo;
+
+/**
+ * Converter what can report invalid source value without throwing {@link ConversionException}
+ * @author Artem Mironov
+ */
+public interface TryConverter<SrcType, DstType> extends Converter<SrcType, DstType> {
+    /**
+     * Convert value storing result or failure into result holder
+     * @return true if conversion succeed
+     */
+    boolean tryConvert(final SrcType src, final TypeInfo<SrcType> srcType, final TypeInfo<DstType> dstType, final ConversionResult<DstType> result);
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2015 Artem Mironov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jeesy.classinfo.converter.impl;
+
+import org.jeesy.classinfo.TypeInfo;
+import org.jeesy.classinfo.converter.api.ConversionException;
+import org.jeesy.classinfo.converter.api.ByteParser;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Base of parsers from bytes. Byte buffers with accessible array are parsed from it directly,
+ * others are copied into per thread scratch array.
+ * Also has helpers to parse ASCII decimal numbers from bytes.
+ * @author Artem Mironov
+ */
+public abstract class AbstractStringParser<T> implements ByteParser<T> {
+    private static final ThreadLocal<byte[]> SCRATCH = new ThreadLocal<byte[]>() {
+        @Override
+        protected byte[] initialValue() {
+            return new byte[64];
+        }
+    };
+    /**
+     * Powers of ten exactly representable as double
+     */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    @Override
+    public T parse(ByteBuffer buf, int offset, int length, TypeInfo<T> dstType) throws ConversionException {
+        if(buf.hasArray()) return parse(buf.array(), buf.arrayOffset() + offset, length, dstType);
+        byte[] scratch = SCRATCH.get();
+        if(scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+            SCRATCH.set(scratch);
+        }
+        ByteBuffer view = buf.duplicate();
+        view.limit(offset + length).position(offset);
+        view.get(scratch, 0, length);
+        return parse(scratch, 0, length, dstType);
+    }
+
+    protected static String decode(byte[] buf, int offset, int length) {
+        return new String(buf, offset, length, StandardCharsets.UTF_8);
+    }
+
+    protected static ConversionException parseException(byte[] buf, int offset, int length, TypeInfo<?> dstType, Throwable cause) {
+        return new ConversionException(decode(buf, offset, length), TypeInfo.forClass(String.class), dstType, cause);
+    }
+
+    /**
+     * Parse double. Plain decimals with up to 15 digits and scale up to 22 are computed exactly from bytes,
+     * other values including exponent notation are parsed by {@link Double#parseDouble(String)}.
+     * @throws NumberFormatException if value is not a number
+     */
+    static double parseDouble(byte[] s, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if(i < end && (s[i] == '-' || s[i] == '+')) negative = s[i++] == '-';
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean dot = false;
+        boolean any = false;
+        for(; i < end; i++) {
+            byte c = s[i];
+            if(c >= '0' && c <= '9') {
+                any = true;
+                if(mantissa != 0 || c != '0') digits++;
+                if(digits > 15) break;
+                mantissa = mantissa * 10 + (c - '0');
+                if(dot) scale++;
+            } else if(c == '.' && !dot) {
+                dot = true;
+            } else {
+                break;
+            }
+        }
+        if(i == end && any && scale < POWERS_OF_TEN.length) {
+            double res = mantissa / POWERS_OF_TEN[scale];
+            return negative ? -res : res;
+        }
+        return Double.parseDouble(new String(s, start, end - start, StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * Parse decimal. Plain decimals with up to 18 digits are created from unscaled long,
+     * other values are parsed from chars.
+     * @throws NumberFormatException if value is not a number
+     */
+    static BigDecimal parseBigDecimal(byte[] s, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if(i < end && (s[i] == '-' || s[i] == '+')) negative = s[i++] == '-';
+        long unscaled = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean dot = false;
+        boolean any = false;
+        for(; i < end; i++) {
+            byte c = s[i];
+            if(c >= '0' && c <= '9' && digits < 18) {
+                any = true;
+                digits++;
+                unscaled = unscaled * 10 + (c - '0');
+                if(dot) scale++;
+            } else if(c == '.' && !dot) {
+                dot = true;
+            } else {
+                break;
+            }
+        }
+        if(i == end && any) return BigDecimal.valueOf(negative ? -unscaled : unscaled, scale);
+        char[] chars = new char[end - start];
+        for(int j = 0; j < chars.length; j++) chars[j] = (char) (s[start + j] & 0xFF);
+        return new BigDecimal(chars, 0, chars.length);
+    }
+
+    /**
+     * Compare bytes with ASCII string ignoring case
+     */
+    static boolean equalsIgnoreCase(byte[] s, int start, int end, String ascii) {
+        if(end - start != ascii.length()) return false;
+        for(int i = 0; i < ascii.length(); i++) {
+            int c = s[start + i];
+            if(c >= 'A' && c <= 'Z') c += 'a' - 'A';
+            int e = ascii.charAt(i);
+            if(e >= 'A' && e <= 'Z') e += 'a' - 'A';
+            if(c != e) return false;
+        }
+        return true;
+    }
+}
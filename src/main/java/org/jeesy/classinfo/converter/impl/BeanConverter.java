@@ -15,6 +15,7 @@
  */
 package org.jeesy.classinfo.converter.impl;
 
+import org.jeesy.classinfo.BeanAccessor;
 import org.jeesy.classinfo.ClassInfo;
 import org.jeesy.classinfo.ClassInfoScanner;
 import org.jeesy.classinfo.PropertyInfo;
@@ -23,35 +24,231 @@ import org.jeesy.classinfo.converter.api.ConversionException;
 import org.jeesy.classinfo.converter.api.ConversionService;
 import org.jeesy.classinfo.converter.api.Converter;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
+ * Copies matching properties of source bean to new instance of destination bean converting values with conversion service.
+ * Mapping between each pair of classes is compiled once into {@link Plan} and cached.
+ * If conversion service is {@link ChainableConversionService} plan is rebuilt after converters setup is changed,
+ * for other services converters are looked up on each conversion.
  * @author Artem Mironov
  */
 public class BeanConverter implements Converter<Object, Object> {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    /**
+     * Minimal number of beans converted by single task in {@link #convertAll(Collection, Class, ForkJoinPool)}
+     */
+    private static final int MIN_CHUNK_SIZE = 256;
+
     private final ConversionService conversionService;
+    /**
+     * Plans by source class and then by destination class. Plans are stored with source class,
+     * so converter doesn't keep source classes and their loaders from unloading.
+     * Plan still references destination class, so it's kept while source class is alive.
+     */
+    private final ClassValue<ConcurrentMap<Class<?>, Plan>> plans = new ClassValue<ConcurrentMap<Class<?>, Plan>>() {
+        @Override
+        protected ConcurrentMap<Class<?>, Plan> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
     public BeanConverter(ConversionService conversionService) {
         this.conversionService = conversionService;
     }
 
     @Override
     public Object convert(Object src, TypeInfo<Object> srcType, TypeInfo<Object> dstType) throws ConversionException {
-        ClassInfo srcClassInfo = ClassInfoScanner.classInfo(srcType.getRawType());
-        ClassInfo dstClassInfo = ClassInfoScanner.classInfo(dstType.getRawType());
-        Object dest = null;
-        try {
-            dest = dstType.getRawType().newInstance();
-        } catch (InstantiationException e) {
-            e.printStackTrace();
-        } catch (IllegalAccessException e) {
-            e.printStackTrace();
+        return planFor(srcType.getRawType(), dstType.getRawType()).convert(src, srcType, dstType);
+    }
+
+    /**
+     * Convert all beans of collection to new instances of destination class in parallel.
+     * Source is split to index ranges converted by tasks of the pool, result preserves order of source.
+     * Null elements are converted to null.
+     * @param src source beans
+     * @param dstClass destination class
+     * @param pool pool to run conversion tasks
+     * @return list of converted beans
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> convertAll(Collection<?> src, Class<T> dstClass, ForkJoinPool pool) throws ConversionException {
+        Object[] values = src.toArray();
+        Object[] res = new Object[values.length];
+        int chunk = Math.max(MIN_CHUNK_SIZE, values.length / (pool.getParallelism() * 4) + 1);
+        pool.invoke(new ConvertTask(values, res, 0, values.length, chunk, dstClass));
+        return (List<T>) Arrays.asList(res);
+    }
+
+    /**
+     * Convert all beans of collection in parallel using pool shared by all bean converters.
+     * Pool is created on first call with parallelism equal to number of processors.
+     * @see #convertAll(Collection, Class, ForkJoinPool)
+     */
+    public <T> List<T> convertAll(Collection<?> src, Class<T> dstClass) throws ConversionException {
+        return convertAll(src, dstClass, SharedPool.POOL);
+    }
+
+    /**
+     * Holder of shared pool, so pool threads are not created until parallel conversion is requested
+     */
+    private static final class SharedPool {
+        static final ForkJoinPool POOL = new ForkJoinPool();
+    }
+
+    /**
+     * Converts range of source array splitting it while it's bigger than chunk
+     */
+    private class ConvertTask extends RecursiveAction {
+        private static final long serialVersionUID = 0;
+        private final Object[] src;
+        private final Object[] dst;
+        private final int from;
+        private final int to;
+        private final int chunk;
+        private final Class<?> dstClass;
+
+        ConvertTask(Object[] src, Object[] dst, int from, int to, int chunk, Class<?> dstClass) {
+            this.src = src;
+            this.dst = dst;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+            this.dstClass = dstClass;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        protected void compute() {
+            if(to - from > chunk) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ConvertTask(src, dst, from, mid, chunk, dstClass), new ConvertTask(src, dst, mid, to, chunk, dstClass));
+                return;
+            }
+            TypeInfo<Object> dstType = (TypeInfo<Object>) TypeInfo.forClass(dstClass);
+            Plan plan = null;
+            for(int i = from; i < to; i++) {
+                Object value = src[i];
+                if(value == null) continue;
+                if(plan == null || plan.srcClass != value.getClass()) plan = planFor(value.getClass(), dstClass);
+                dst[i] = plan.convert(value, (TypeInfo<Object>) TypeInfo.forClass(value.getClass()), dstType);
+            }
         }
-        for(PropertyInfo srcPi : (Collection<PropertyInfo>)srcClassInfo.getProperties().values()) {
-            PropertyInfo destPi = dstClassInfo.getPropertyInfo(srcPi.getName());
-            if(destPi != null) {
-                destPi.setValue(dest, conversionService.convertType(srcPi.getValue(src), srcPi.getTypeInfo(), destPi.getTypeInfo()));
+    }
+
+    /**
+     * Get cached or compile new mapping plan for the pair of classes
+     */
+    protected Plan planFor(Class<?> srcClass, Class<?> dstClass) {
+        ConcurrentMap<Class<?>, Plan> byDst = plans.get(srcClass);
+        int version = version();
+        Plan plan = byDst.get(dstClass);
+        if(plan == null || plan.version != version) {
+            plan = new Plan(conversionService, srcClass, dstClass, version);
+            byDst.put(dstClass, plan);
+        }
+        return plan;
+    }
+
+    /**
+     * Version of conversion service setup or -1 if service doesn't track changes
+     */
+    private int version() {
+        return conversionService instanceof ChainableConversionService ? ((ChainableConversionService) conversionService).getVersion() : -1;
+    }
+
+    /**
+     * Compiled mapping between source and destination classes.
+     * Holds ordinals of matched readable source and writable destination properties, their types,
+     * converter resolved for each pair (unless conversion service has no version) and handle of destination default constructor.
+     */
+    protected static class Plan {
+        private final Class<?> srcClass;
+        private final int version;
+        private final ConversionService conversionService;
+        private final MethodHandle constructor;
+        private final BeanAccessor srcAccessor;
+        private final BeanAccessor dstAccessor;
+        private final int[] srcOrdinals;
+        private final int[] dstOrdinals;
+        private final TypeInfo[] srcTypes;
+        private final TypeInfo[] dstTypes;
+        private final Converter[] converters;
+
+        @SuppressWarnings("unchecked")
+        Plan(ConversionService conversionService, Class<?> srcClass, Class<?> dstClass, int version) {
+            this.srcClass = srcClass;
+            this.version = version;
+            this.conversionService = conversionService;
+            ClassInfo srcClassInfo = ClassInfoScanner.classInfo(srcClass);
+            ClassInfo dstClassInfo = ClassInfoScanner.classInfo(dstClass);
+            constructor = constructorHandle(dstClass);
+            srcAccessor = srcClassInfo.getBeanAccessor();
+            dstAccessor = dstClassInfo.getBeanAccessor();
+            List<PropertyInfo> srcProps = new ArrayList<>();
+            List<PropertyInfo> dstProps = new ArrayList<>();
+            for(PropertyInfo srcPi : (List<PropertyInfo>) srcClassInfo.getPropertyList()) {
+                PropertyInfo dstPi = dstClassInfo.getPropertyInfo(srcPi.getName());
+                if(dstPi != null && srcPi.isReadable() && dstPi.isWritable()) {
+                    srcProps.add(srcPi);
+                    dstProps.add(dstPi);
+                }
+            }
+            int size = srcProps.size();
+            srcOrdinals = new int[size];
+            dstOrdinals = new int[size];
+            srcTypes = new TypeInfo[size];
+            dstTypes = new TypeInfo[size];
+            converters = version < 0 ? null : new Converter[size];
+            for(int i = 0; i < size; i++) {
+                PropertyInfo srcPi = srcProps.get(i);
+                PropertyInfo dstPi = dstProps.get(i);
+                srcOrdinals[i] = srcPi.getOrdinal();
+                dstOrdinals[i] = dstPi.getOrdinal();
+                srcTypes[i] = srcPi.getTypeInfo();
+                dstTypes[i] = dstPi.getTypeInfo();
+                if(converters != null) converters[i] = conversionService.converterFor(srcTypes[i].getRawType(), dstTypes[i].getRawType());
+            }
+        }
+
+        private static MethodHandle constructorHandle(Class<?> type) {
+            try {
+                Constructor<?> constructor = type.getDeclaredConstructor();
+                constructor.setAccessible(true);
+                return LOOKUP.unreflectConstructor(constructor).asType(MethodType.methodType(Object.class));
+            } catch (NoSuchMethodException|IllegalAccessException|RuntimeException e) {
+                return null;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        public Object convert(Object src, TypeInfo<Object> srcType, TypeInfo<Object> dstType) throws ConversionException {
+            if(constructor == null)
+                throw new ConversionException(src, srcType, dstType, "No default constructor in "+dstType.getRawType().getName());
+            Object dest = null;
+            try {
+                dest = (Object) constructor.invokeExact();
+            } catch (Throwable e) {
+                throw new ConversionException(src, srcType, dstType, e);
+            }
+            for(int i = 0; i < srcOrdinals.length; i++) {
+                Object value = srcAccessor.get(src, srcOrdinals[i]);
+                Converter converter = converters != null ? converters[i]
+                        : conversionService.converterFor(srcTypes[i].getRawType(), dstTypes[i].getRawType());
+                dstAccessor.set(dest, dstOrdinals[i], converter.convert(value, srcTypes[i], dstTypes[i]));
             }
+            return dest;
         }
-        return dest;
     }
 }
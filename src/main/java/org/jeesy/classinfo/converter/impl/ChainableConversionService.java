@@ -17,6 +17,8 @@ package org.jeesy.classinfo.converter.impl;
 
 import org.jeesy.classinfo.converter.api.ConversionService;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * @author Artem Mironov
  */
@@ -29,4 +31,20 @@ public abstract class ChainableConversionService {
     public ConversionService getFallback() {
         return fallback;
     }
+
+    private final AtomicInteger version = new AtomicInteger();
+
+    /**
+     * Version of converters setup. Converters returned by {@code converterFor} can be cached while version is the same.
+     */
+    public int getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Should be called after each change of converters setup
+     */
+    protected void changed() {
+        version.incrementAndGet();
+    }
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2015 Artem Mironov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jeesy.classinfo.converter.impl;
+
+import org.jeesy.classinfo.TypeInfo;
+import org.jeesy.classinfo.converter.api.ConversionException;
+import org.jeesy.classinfo.converter.api.Converter;
+
+/**
+ * Converter what passes value through sequence of converters,
+ * for example A-&gt;String-&gt;B when there is no converter registered for A-&gt;B
+ * @author Artem Mironov
+ */
+public class ChainedConverter implements Converter<Object, Object> {
+    private final Converter<Object, Object>[] steps;
+    private final TypeInfo<Object>[] intermediateTypes;
+
+    /**
+     * @param steps converters to apply in order
+     * @param intermediateTypes destination type of each step except the last one
+     */
+    @SuppressWarnings("unchecked")
+    public ChainedConverter(Converter[] steps, Class[] intermediateTypes) {
+        if(intermediateTypes.length != steps.length - 1)
+            throw new IllegalArgumentException("Expected "+(steps.length - 1)+" intermediate types for "+steps.length+" steps");
+        this.steps = steps.clone();
+        this.intermediateTypes = new TypeInfo[intermediateTypes.length];
+        for(int i = 0; i < intermediateTypes.length; i++)
+            this.intermediateTypes[i] = TypeInfo.forClass(intermediateTypes[i]);
+    }
+
+    @Override
+    public Object convert(Object src, TypeInfo<Object> srcType, TypeInfo<Object> dstType) throws ConversionException {
+        Object value = src;
+        TypeInfo<Object> type = srcType;
+        int last = steps.length - 1;
+        for(int i = 0; i < last; i++) {
+            value = steps[i].convert(value, type, intermediateTypes[i]);
+            type = intermediateTypes[i];
+        }
+        return steps[last].convert(value, type, dstType);
+    }
+}
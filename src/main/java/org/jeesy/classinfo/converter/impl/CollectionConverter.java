@@ -18,11 +18,20 @@ package org.jeesy.classinfo.converter.impl;
 import org.jeesy.classinfo.TypeInfo;
 import org.jeesy.classinfo.converter.api.*;
 
+import java.io.IOException;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
 
 /**
+ * Converts collections from and to comma separated string.
+ * Elements are written by conversion service, commas, double quotes and backslashes inside of elements
+ * are escaped with backslash and empty or null elements are written as {@code ""}, e.g. list of
+ * {@code a}, {@code b,c} and empty string is written as {@code a,b\,c,""}. Empty collection is written as empty string.
+ * Note what it is not the format of {@link Collection#toString()} ({@code [a, b,c, ]}) used before.
  * @author Artem Mironov
  */
 public class CollectionConverter implements TwoWayConverter<String, Collection> {
@@ -33,9 +42,15 @@ public class CollectionConverter implements TwoWayConverter<String, Collection>
         this.defaultImplClass = defaultImplClass;
     }
 
-    private <T> void fillCollection(Collection<T> c, final Class<T> elementType, final String [] strArray) {
-        for(String elm : strArray)
-            c.add(conversionService.convertType(elm, TypeInfo.forClass(String.class), TypeInfo.forClass(elementType)));
+    private <T> void fillCollection(final Collection<T> c, final Class<T> elementType, final String value) {
+        final TypeInfo<String> srcType = TypeInfo.forClass(String.class);
+        final TypeInfo<T> dstType = TypeInfo.forClass(elementType);
+        parseCollection(value, new TokenHandler() {
+            @Override
+            public void token(String token) {
+                c.add(conversionService.convertType(token, srcType, dstType));
+            }
+        });
     }
 
     protected Collection newInstance() throws Exception {
@@ -50,21 +65,95 @@ public class CollectionConverter implements TwoWayConverter<String, Collection>
 
     @Override
     public Converter<Collection, String> getReverse() {
-        return new Converter<Collection, String>() {
+        return new AppendableSerializer<Collection>() {
             @Override
             public String convert(Collection src, TypeInfo<Collection> srcType, TypeInfo<String> dstType) throws ConversionException {
+                if(src == null) return null;
                 StringBuilder out = new StringBuilder();
-                Class elementType = getElementType(srcType.getType());
-                out.append("[");
-                for(Object elm : src) {
-                    out.append(conversionService.convertType(elm, TypeInfo.forClass(elementType), (TypeInfo)TypeInfo.forClass(String.class)));
+                try {
+                    serialize(src, srcType, out);
+                } catch (IOException e) {
+                    throw new ConversionException(src, srcType, dstType, e);
                 }
-                out.append("]");
-                return  out.toString();
+                return out.toString();
+            }
+
+            @Override
+            public void serialize(Collection src, TypeInfo<Collection> srcType, Appendable out) throws IOException, ConversionException {
+                if(src == null) return;
+                Class elementType = srcType.getType() instanceof ParameterizedType ? getElementType(srcType.getType()) : null;
+                writeElements(conversionService, src.iterator(), elementType, out);
             }
         };
     }
 
+    /**
+     * Write elements separated by comma in format what can be parsed by {@link #parseCollection(String, TokenHandler)}.
+     * Each element is written by conversion service through escaping output, empty and null elements are written as "".
+     * @param elements elements to write
+     * @param elementType declared type of elements or null to use runtime class of each element
+     * @param out output
+     */
+    @SuppressWarnings("unchecked")
+    public static void writeElements(ConversionService conversionService, Iterator<?> elements, Class<?> elementType, Appendable out) throws IOException {
+        EscapingAppendable escaping = new EscapingAppendable(out);
+        boolean first = true;
+        while(elements.hasNext()) {
+            Object elm = elements.next();
+            if(!first) out.append(',');
+            first = false;
+            escaping.written = 0;
+            if(elm != null) {
+                Class type = elementType != null && !elementType.isPrimitive() ? elementType : elm.getClass();
+                write(conversionService, TypeInfo.forClass(type), elm, escaping);
+            }
+            if(escaping.written == 0) out.append("\"\"");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void write(ConversionService conversionService, TypeInfo type, Object value, Appendable out) throws IOException {
+        if(conversionService instanceof ConversionWriter) {
+            ((ConversionWriter) conversionService).write(type, value, out);
+        } else {
+            Object res = conversionService.convertType(value, type, TypeInfo.forClass(String.class));
+            if(res != null) out.append(res.toString());
+        }
+    }
+
+    /**
+     * Escapes separators, quotes and backslashes with backslash
+     */
+    private static class EscapingAppendable implements Appendable {
+        private final Appendable out;
+        int written;
+
+        EscapingAppendable(Appendable out) {
+            this.out = out;
+        }
+
+        @Override
+        public Appendable append(CharSequence csq) throws IOException {
+            if(csq == null) csq = "null";
+            return append(csq, 0, csq.length());
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) throws IOException {
+            if(csq == null) csq = "null";
+            for(int i = start; i < end; i++) append(csq.charAt(i));
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) throws IOException {
+            if(c == ',' || c == '"' || c == '\\') out.append('\\');
+            out.append(c);
+            written++;
+            return this;
+        }
+    }
+
     @Override
     public Converter<String, Collection> getDirect() {
         return new Converter<String, Collection>() {
@@ -75,7 +164,7 @@ public class CollectionConverter implements TwoWayConverter<String, Collection>
                     try {
                         Collection target = newInstance();
                         if (src != null && !src.isEmpty())
-                            fillCollection(target, getElementType(dstType.getType()), parseCollection(src));
+                            fillCollection(target, getElementType(dstType.getType()), src);
                         return target;
                     } catch(Exception e) {
                         throw new ConversionException(src, srcType, dstType, e);
@@ -87,12 +176,65 @@ public class CollectionConverter implements TwoWayConverter<String, Collection>
     }
 
     /**
-     * Parse string value of format "<value1>"(,"<value2>").*
+     * Receives tokens of parsed collection in order
+     */
+    public interface TokenHandler {
+        void token(String token);
+    }
+
+    /**
+     * Parse string value of format value1(,value2)* into array of elements.
+     * @see #parseCollection(String, TokenHandler)
      * @param value string value
      * @return array with result
      */
     public static String [] parseCollection(final String value) {
-        return value.split(",(?=([^\"]*\"[^\"]*\")*[^\"]*$)", -1);
+        final List<String> res = new ArrayList<>();
+        parseCollection(value, new TokenHandler() {
+            @Override
+            public void token(String token) {
+                res.add(token);
+            }
+        });
+        return res.toArray(new String[res.size()]);
+    }
+
+    /**
+     * Split string value of format value1(,value2)* in single pass passing each element to handler.
+     * Commas inside double quotes don't split elements and quotes are removed,
+     * backslash escapes next character both inside and outside of quotes.
+     * Empty string has no elements, single empty element is written as {@code ""}.
+     * @param value string value
+     * @param handler receiver of elements
+     */
+    public static void parseCollection(final String value, final TokenHandler handler) {
+        int len = value.length();
+        if(len == 0) return;
+        int start = 0;
+        //set when element has quotes or escapes and is collected in buffer
+        StringBuilder buf = null;
+        boolean unescaped = false;
+        boolean quoted = false;
+        for(int i = 0; i < len; i++) {
+            char c = value.charAt(i);
+            if((c == '\\' && i + 1 < len) || c == '"') {
+                if(!unescaped) {
+                    if(buf == null) buf = new StringBuilder();
+                    buf.setLength(0);
+                    buf.append(value, start, i);
+                    unescaped = true;
+                }
+                if(c == '"') quoted = !quoted;
+                else buf.append(value.charAt(++i));
+            } else if(c == ',' && !quoted) {
+                handler.token(unescaped ? buf.toString() : value.substring(start, i));
+                start = i + 1;
+                unescaped = false;
+            } else if(unescaped) {
+                buf.append(c);
+            }
+        }
+        handler.token(unescaped ? buf.toString() : value.substring(start, len));
     }
 
     //@Override
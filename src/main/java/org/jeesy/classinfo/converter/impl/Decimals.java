@@ -0,0 +1,101 @@
+/*
+ * Copyright 2015 Artem Mironov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jeesy.classinfo.converter.impl;
+
+/**
+ * Parsing of decimal integers without exceptions from part of string or of ASCII bytes.
+ * Strings and bytes are parsed by the same code, so both follow the same rules.
+ * Empty part is not a number, callers what treat empty value as default check it themselves.
+ * @author Artem Mironov
+ */
+final class Decimals {
+    private Decimals() {}
+
+    /**
+     * Check what part of string is decimal number in specified range
+     */
+    static boolean isLong(CharSequence s, int start, int end, long min, long max) {
+        return check(s, start, end, min, max);
+    }
+
+    /**
+     * Check what bytes are decimal number in specified range
+     */
+    static boolean isLong(byte[] s, int start, int end, long min, long max) {
+        return check(s, start, end, min, max);
+    }
+
+    /**
+     * Parse part of string already checked by {@link #isLong(CharSequence, int, int, long, long)}
+     */
+    static long parseValidLong(CharSequence s, int start, int end) {
+        return parseValid(s, start, end);
+    }
+
+    /**
+     * Parse bytes already checked by {@link #isLong(byte[], int, int, long, long)}
+     */
+    static long parseValidLong(byte[] s, int start, int end) {
+        return parseValid(s, start, end);
+    }
+
+    /**
+     * Parse decimal number from part of the string.
+     * @throws NumberFormatException if part is empty or not a number in specified range
+     */
+    static long parseLong(CharSequence s, int start, int end, long min, long max) {
+        if(!check(s, start, end, min, max))
+            throw new NumberFormatException("For input string: \"" + s.subSequence(start, end) + "\"");
+        return parseValid(s, start, end);
+    }
+
+    private static boolean check(Object s, int start, int end, long min, long max) {
+        if(start == end) return false;
+        int i = start;
+        boolean negative = false;
+        int first = charAt(s, i);
+        if(first == '-' || first == '+') {
+            negative = first == '-';
+            if(++i == end) return false;
+        }
+        //accumulate negatively to handle minimal value
+        long limit = negative ? min : -max;
+        long multLimit = limit / 10;
+        long res = 0;
+        for(; i < end; i++) {
+            int digit = charAt(s, i) - '0';
+            if(digit < 0 || digit > 9 || res < multLimit) return false;
+            res *= 10;
+            if(res < limit + digit) return false;
+            res -= digit;
+        }
+        return true;
+    }
+
+    private static long parseValid(Object s, int start, int end) {
+        int i = start;
+        int first = charAt(s, i);
+        boolean negative = first == '-';
+        if(negative || first == '+') i++;
+        long res = 0;
+        for(; i < end; i++) res = res * 10 - (charAt(s, i) - '0');
+        return negative ? res : -res;
+    }
+
+    private static int charAt(Object s, int i) {
+        return s instanceof byte[] ? ((byte[]) s)[i] : ((CharSequence) s).charAt(i);
+    }
+}
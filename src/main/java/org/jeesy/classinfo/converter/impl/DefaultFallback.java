@@ -16,85 +16,224 @@
 package org.jeesy.classinfo.converter.impl;
 
 import org.jeesy.classinfo.TypeInfo;
+import org.jeesy.classinfo.Utils;
 import org.jeesy.classinfo.converter.api.ConversionException;
+import org.jeesy.classinfo.converter.api.ConversionResult;
 import org.jeesy.classinfo.converter.api.ConversionService;
+import org.jeesy.classinfo.converter.api.ConversionWriter;
 import org.jeesy.classinfo.converter.api.Converter;
+import org.jeesy.classinfo.converter.api.TryConversionService;
 
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Array;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * @author Artem Mironov
  */
-public class DefaultFallback implements ConversionService {
+public class DefaultFallback implements ConversionService, ConversionWriter, TryConversionService {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType FACTORY_TYPE = MethodType.methodType(Object.class, Object.class);
+    /**
+     * Names of static factory methods tried after constructor in this order
+     */
+    private static final String[] FACTORY_METHODS = {"valueOf", "of", "parse"};
+    /**
+     * Marker of pair what can't be converted by constructor or factory
+     */
+    private static final MethodHandle NO_FACTORY = MethodHandles.constant(Object.class, null);
+    private static final EnumConverter ENUM_CONVERTER = new EnumConverter();
 
     private ConversionService conversionService;
+    private final ConcurrentMap<Class<?>, ConcurrentMap<Class<?>, MethodHandle>> factories = new ConcurrentHashMap<>();
 
     public DefaultFallback(ConversionService conversionService) {
         this.conversionService = conversionService;
     }
 
+    @SuppressWarnings("unchecked")
     @Override
     public Object convert(Object src, TypeInfo<Object> srcType, TypeInfo<Object> dstType) throws ConversionException {
         if(src == null) return null; //assume what here we can't deal with null source
         Class<Object> rawType = dstType.getRawType();
         if (srcType.getRawType().equals(rawType)) return src;
-        //src is a string
 
         Object res = null;
+        //any char sequence is parsed as string: enums and arrays here, other types with factory lookup below
         if(CharSequence.class.isAssignableFrom(srcType.getRawType())) {
             String val;
             if(String.class.equals(srcType.getRawType()))
                 val = (String) src;
             else
                 val = src.toString();
+            if(rawType.isEnum())
+                return ENUM_CONVERTER.convert(val, TypeInfo.forClass(String.class), (TypeInfo) dstType);
             res = fromString(val, dstType);
         }
         if(res == null){
             if(rawType.equals(String.class)) {
+                if(srcType.getRawType().isArray()) {
+                    StringBuilder sb = new StringBuilder();
+                    try {
+                        write(srcType, src, sb);
+                    } catch (IOException e) {
+                        throw new ConversionException(src, srcType, dstType, e);
+                    }
+                    return sb.toString();
+                }
                 return src.toString();
             }
-            //try constructor with 1 argument and dstType
+            //try constructor or static factory with 1 argument
+            MethodHandle factory = factoryFor(srcType.getRawType(), rawType);
+            if(factory == null)
+                throw new ConversionException(src, srcType, dstType, "No converting constructor or factory method");
             try {
-                Constructor<Object> constructor = rawType.getConstructor(srcType.getRawType());
-                boolean accesible = constructor.isAccessible();
-                constructor.setAccessible(true);
-                res = constructor.newInstance(src);
-                constructor.setAccessible(accesible);
-            } catch (Exception e) {
+                res = (Object) factory.invokeExact(src);
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
                 throw new ConversionException(src, srcType, dstType,"Cannot create target with converting constructor", e);
             }
         }
         return res;
     }
 
+    /**
+     * Get cached or find new factory of destination value from source value
+     * @return handle of (Object)Object type or null if there is no factory
+     */
+    protected MethodHandle factoryFor(Class<?> srcType, Class<?> dstType) {
+        ConcurrentMap<Class<?>, MethodHandle> byDst = factories.get(srcType);
+        if(byDst == null) {
+            ConcurrentMap<Class<?>, MethodHandle> newByDst = new ConcurrentHashMap<>();
+            byDst = factories.putIfAbsent(srcType, newByDst);
+            if(byDst == null) byDst = newByDst;
+        }
+        MethodHandle res = byDst.get(dstType);
+        if(res == null) {
+            res = findFactory(srcType, dstType);
+            byDst.putIfAbsent(dstType, res == null ? NO_FACTORY : res);
+        }
+        return res == NO_FACTORY ? null : res;
+    }
+
+    /**
+     * Search public constructor of destination with single parameter assignable from source and then
+     * public static methods valueOf, of or parse with such parameter returning destination.
+     * The most specific parameter is preferred: exact source class, its superclasses, interfaces
+     * in breadth first order and Object, so choice doesn't depend on order of reflected members.
+     */
+    private static MethodHandle findFactory(Class<?> srcType, Class<?> dstType) {
+        try {
+            List<Class<?>> parameterTypes = Utils.hierarchy(srcType);
+            Constructor<?>[] constructors = dstType.getConstructors();
+            for(Class<?> parameterType : parameterTypes) {
+                for(Constructor<?> constructor : constructors) {
+                    if(acceptsSingle(constructor.getParameterTypes(), parameterType)) {
+                        constructor.setAccessible(true);
+                        return LOOKUP.unreflectConstructor(constructor).asType(FACTORY_TYPE);
+                    }
+                }
+            }
+            Method[] methods = dstType.getMethods();
+            for(String name : FACTORY_METHODS) {
+                for(Class<?> parameterType : parameterTypes) {
+                    for(Method method : methods) {
+                        if(method.getName().equals(name) && Modifier.isStatic(method.getModifiers())
+                                && dstType.isAssignableFrom(method.getReturnType())
+                                && acceptsSingle(method.getParameterTypes(), parameterType)) {
+                            method.setAccessible(true);
+                            return LOOKUP.unreflect(method).asType(FACTORY_TYPE);
+                        }
+                    }
+                }
+            }
+        } catch (IllegalAccessException|RuntimeException e) {
+            //not convertible
+        }
+        return null;
+    }
+
+    private static boolean acceptsSingle(Class<?>[] parameterTypes, Class<?> parameterType) {
+        return parameterTypes.length == 1 && !parameterTypes[0].isPrimitive() && parameterTypes[0] == parameterType;
+    }
+
     @SuppressWarnings("unchecked")
     private Object fromString(String src, TypeInfo<Object> type) {
         Class rawType = type.getRawType();
-        if(rawType.isEnum()) {
-            try {
-                return Enum.valueOf((Class<? extends Enum>) rawType, src);
-            } catch(IllegalArgumentException e) {
-                throw new ConversionException(src, TypeInfo.forClass(String.class), type, e);
-            }
-        } else if(rawType.isArray()) {
+        if(rawType.isArray()) {
             if(rawType.getComponentType().equals(String.class))
                 return CollectionConverter.parseCollection(src);
             else {
-                return fillArray(rawType.getComponentType(), CollectionConverter.parseCollection(src));
+                try {
+                    Object res = PrimitiveArrays.parse(src, rawType.getComponentType());
+                    if(res != null) return res;
+                } catch(NumberFormatException e) {
+                    throw new ConversionException(src, TypeInfo.forClass(String.class), type, e);
+                }
+                return fillArray(rawType.getComponentType(), src);
 
             }
         }
         return null;
     }
 
+    private Object fillArray(final Class componentType, final String value) {
+        final List<Object> elements = new ArrayList<>();
+        final TypeInfo<String> srcType = TypeInfo.forClass(String.class);
+        final TypeInfo<Object> dstType = TypeInfo.forClass(componentType);
+        CollectionConverter.parseCollection(value, new CollectionConverter.TokenHandler() {
+            @Override
+            public void token(String token) {
+                elements.add(conversionService.convertType(token, srcType, dstType));
+            }
+        });
+        Object result = Array.newInstance(componentType, elements.size());
+        for(int i = 0; i < elements.size(); i++)
+            Array.set(result, i, elements.get(i));
+        return result;
+    }
+
     @SuppressWarnings("unchecked")
-    private <T> T [] fillArray(final Class componentType, final String [] strArray) {
-        T [] result = (T[]) Array.newInstance(componentType, strArray.length);
-        for(int i = 0; i<result.length; i++) {
-            result[i] = (T) conversionService.convertType(strArray[i], (TypeInfo)TypeInfo.forClass(String.class), TypeInfo.forClass(componentType));
+    @Override
+    public <T> void write(TypeInfo<T> type, T value, Appendable out) throws IOException, ConversionException {
+        if(value == null) return;
+        if(type.getRawType().isArray()) {
+            if(PrimitiveArrays.write(value, out)) return;
+            final Object array = value;
+            final int length = Array.getLength(array);
+            Iterator<Object> elements = new Iterator<Object>() {
+                int i = 0;
+                @Override public boolean hasNext() {return i < length;}
+                @Override public Object next() {return Array.get(array, i++);}
+                @Override public void remove() {throw new UnsupportedOperationException();}
+            };
+            CollectionConverter.writeElements(conversionService, elements, type.getRawType().getComponentType(), out);
+        } else {
+            Object res = convert(value, (TypeInfo) type, (TypeInfo) TypeInfo.forClass(String.class));
+            if(res != null) out.append(res.toString());
+        }
+    }
+
+    @Override
+    public <I, O> boolean tryConvertType(I src, TypeInfo<I> srcType, TypeInfo<O> dstType, ConversionResult<O> result) {
+        try {
+            result.success(convertType(src, srcType, dstType));
+            return true;
+        } catch (ConversionException e) {
+            result.failure(e.getMessage());
+            return false;
         }
-        return result;
     }
 
     @Override
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2015 Artem Mironov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jeesy.classinfo.converter.impl;
+
+import org.jeesy.classinfo.TypeInfo;
+import org.jeesy.classinfo.converter.api.ConversionException;
+import org.jeesy.classinfo.converter.api.ConversionResult;
+import org.jeesy.classinfo.converter.api.TryConverter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Converter of constant name to enum constant of destination type. Empty name is converted to null.
+ * Constants are looked up in tables precomputed for each enum class, names in bytes are compared without decoding.
+ * @author Artem Mironov
+ */
+@SuppressWarnings("unchecked")
+public class EnumConverter extends AbstractStringParser<Enum> implements TryConverter<String, Enum> {
+    private static final String NO_CONSTANT = "No enum constant";
+
+    private static final ClassValue<Constants> CONSTANTS = new ClassValue<Constants>() {
+        @Override
+        protected Constants computeValue(Class<?> type) {
+            return new Constants(type);
+        }
+    };
+
+    private static class Constants {
+        final Enum[] values;
+        final byte[][] names;
+        final Map<String, Enum> byName = new HashMap<>();
+
+        Constants(Class<?> type) {
+            Object[] constants = type.getEnumConstants();
+            values = new Enum[constants != null ? constants.length : 0];
+            names = new byte[values.length][];
+            for(int i = 0; i < values.length; i++) {
+                values[i] = (Enum) constants[i];
+                names[i] = values[i].name().getBytes(StandardCharsets.UTF_8);
+                byName.put(values[i].name(), values[i]);
+            }
+        }
+    }
+
+    /**
+     * Get enum constant by name
+     * @return constant or null if there is no such constant
+     */
+    public static Enum constant(Class<?> enumType, String name) {
+        return CONSTANTS.get(enumType).byName.get(name);
+    }
+
+    /**
+     * Get enum constant by UTF-8 encoded name
+     * @return constant or null if there is no such constant
+     */
+    public static Enum constant(Class<?> enumType, byte[] buf, int offset, int length) {
+        Constants constants = CONSTANTS.get(enumType);
+        for(int i = 0; i < constants.names.length; i++) {
+            byte[] name = constants.names[i];
+            if(name.length != length) continue;
+            int j = 0;
+            while(j < length && name[j] == buf[offset + j]) j++;
+            if(j == length) return constants.values[i];
+        }
+        return null;
+    }
+
+    @Override
+    public Enum convert(String src, TypeInfo<String> srcType, TypeInfo<Enum> dstType) throws ConversionException {
+        if(src == null || src.isEmpty()) return null;
+        Enum res = constant(dstType.getRawType(), src);
+        if(res == null) throw new ConversionException(src, srcType, dstType, NO_CONSTANT);
+        return res;
+    }
+
+    @Override
+    public boolean tryConvert(String src, TypeInfo<String> srcType, TypeInfo<Enum> dstType, ConversionResult<Enum> result) {
+        if(src == null || src.isEmpty()) {
+            result.success(null);
+            return true;
+        }
+        Enum res = constant(dstType.getRawType(), src);
+        if(res == null) {
+            result.failure(NO_CONSTANT);
+            return false;
+        }
+        result.success(res);
+        return true;
+    }
+
+    @Override
+    public Enum parse(byte[] buf, int offset, int length, TypeInfo<Enum> dstType) throws ConversionException {
+        if(length == 0) return null;
+        Enum res = constant(dstType.getRawType(), buf, offset, length);
+        if(res == null) throw new ConversionException(decode(buf, offset, length), TypeInfo.forClass(String.class), dstType, NO_CONSTANT);
+        return res;
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2015 Artem Mironov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jeesy.classinfo.converter.impl;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+
+/**
+ * Parsing and formatting of int[], long[], double[], boolean[] and byte[] in comma separated format
+ * without boxing of elements. Empty element is parsed as default value same as standard converters do.
+ * @author Artem Mironov
+ */
+public final class PrimitiveArrays {
+    private PrimitiveArrays() {}
+
+    /**
+     * Check what array of this component type can be parsed and written by this class
+     */
+    public static boolean isSupported(Class<?> componentType) {
+        return componentType == int.class || componentType == long.class || componentType == double.class
+                || componentType == boolean.class || componentType == byte.class;
+    }
+
+    /**
+     * Parse comma separated value to primitive array.
+     * @return array, empty array for empty value or null if component type is not supported or value contains quotes or escapes
+     * @throws NumberFormatException if element is not a number
+     */
+    public static Object parse(String value, Class<?> componentType) {
+        if(!isSupported(componentType) || value.indexOf('"') >= 0 || value.indexOf('\\') >= 0) return null;
+        if(value.isEmpty()) return Array.newInstance(componentType, 0);
+        int count = 1;
+        for(int i = 0; i < value.length(); i++)
+            if(value.charAt(i) == ',') count++;
+        if(componentType == int.class) {
+            int[] res = new int[count];
+            for(int i = 0, start = 0; i < count; i++) {
+                int end = end(value, start);
+                res[i] = end > start ? (int) Decimals.parseLong(value, start, end, Integer.MIN_VALUE, Integer.MAX_VALUE) : 0;
+                start = end + 1;
+            }
+            return res;
+        } else if(componentType == long.class) {
+            long[] res = new long[count];
+            for(int i = 0, start = 0; i < count; i++) {
+                int end = end(value, start);
+                res[i] = end > start ? Decimals.parseLong(value, start, end, Long.MIN_VALUE, Long.MAX_VALUE) : 0;
+                start = end + 1;
+            }
+            return res;
+        } else if(componentType == byte.class) {
+            byte[] res = new byte[count];
+            for(int i = 0, start = 0; i < count; i++) {
+                int end = end(value, start);
+                res[i] = end > start ? (byte) Decimals.parseLong(value, start, end, Byte.MIN_VALUE, Byte.MAX_VALUE) : 0;
+                start = end + 1;
+            }
+            return res;
+        } else if(componentType == double.class) {
+            double[] res = new double[count];
+            for(int i = 0, start = 0; i < count; i++) {
+                int end = end(value, start);
+                res[i] = end > start ? Double.parseDouble(value.substring(start, end)) : 0D;
+                start = end + 1;
+            }
+            return res;
+        } else {
+            boolean[] res = new boolean[count];
+            for(int i = 0, start = 0; i < count; i++) {
+                int end = end(value, start);
+                res[i] = end - start == 4 && value.regionMatches(true, start, "true", 0, 4);
+                start = end + 1;
+            }
+            return res;
+        }
+    }
+
+    private static int end(String value, int start) {
+        int end = value.indexOf(',', start);
+        return end < 0 ? value.length() : end;
+    }
+
+    /**
+     * Write primitive array as comma separated values
+     * @return false if array type is not supported
+     */
+    public static boolean write(Object array, Appendable out) throws IOException {
+        StringBuilder sb = out instanceof StringBuilder ? (StringBuilder) out : null;
+        if(array instanceof int[]) {
+            int[] a = (int[]) array;
+            for(int i = 0; i < a.length; i++) {
+                if(i > 0) out.append(',');
+                if(sb != null) sb.append(a[i]);
+                else out.append(Integer.toString(a[i]));
+            }
+        } else if(array instanceof long[]) {
+            long[] a = (long[]) array;
+            for(int i = 0; i < a.length; i++) {
+                if(i > 0) out.append(',');
+                if(sb != null) sb.append(a[i]);
+                else out.append(Long.toString(a[i]));
+            }
+        } else if(array instanceof double[]) {
+            double[] a = (double[]) array;
+            for(int i = 0; i < a.length; i++) {
+                if(i > 0) out.append(',');
+                if(sb != null) sb.append(a[i]);
+                else out.append(Double.toString(a[i]));
+            }
+        } else if(array instanceof byte[]) {
+            byte[] a = (byte[]) array;
+            for(int i = 0; i < a.length; i++) {
+                if(i > 0) out.append(',');
+                if(sb != null) sb.append(a[i]);
+                else out.append(Integer.toString(a[i]));
+            }
+        } else if(array instanceof boolean[]) {
+            boolean[] a = (boolean[]) array;
+            for(int i = 0; i < a.length; i++) {
+                if(i > 0) out.append(',');
+                out.append(a[i] ? "true" : "false");
+            }
+        } else {
+            return false;
+        }
+        return true;
+    }
+}
@@ -18,16 +18,24 @@ package org.jeesy.classinfo.converter.impl;
 import org.jeesy.classinfo.AnnotatedNode;
 import org.jeesy.classinfo.TypeInfo;
 import org.jeesy.classinfo.converter.annotations.Format;
+import org.jeesy.classinfo.converter.api.AppendableSerializer;
 import org.jeesy.classinfo.converter.api.ConversionException;
+import org.jeesy.classinfo.converter.api.ConversionResult;
 import org.jeesy.classinfo.converter.api.Converter;
+import org.jeesy.classinfo.converter.api.TryConverter;
 import org.jeesy.classinfo.converter.api.TwoWayConverter;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.text.DateFormat;
 import java.text.ParseException;
+import java.text.ParsePosition;
 import java.text.SimpleDateFormat;
+import java.util.Calendar;
 import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Converters for simple standard java types
@@ -35,24 +43,76 @@ import java.util.Date;
  */
 public class StandardConverters {
 
-    public static class SimpleToStringConverter<T> implements Converter<T,String> {
+    public static class SimpleToStringConverter<T> implements AppendableSerializer<T> {
 
         @Override
         public String convert(T src, TypeInfo<T> srcType, TypeInfo<String> dstType) throws ConversionException {
             return  String.valueOf(src);
         }
+
+        @Override
+        public void serialize(T src, TypeInfo<T> srcType, Appendable out) throws IOException {
+            out.append(String.valueOf(src));
+        }
     }
 
-    public static class NumberToStringConverter<T extends Number> implements Converter<T, String> {
+    public static class NumberToStringConverter<T extends Number> implements AppendableSerializer<T> {
         @Override
         public String convert(T src, TypeInfo<T> srcType, TypeInfo<String> dstType) throws ConversionException {
             //TODO: use Format
             return src != null ? src.toString() : null;
         }
+
+        @Override
+        public void serialize(T src, TypeInfo<T> srcType, Appendable out) throws IOException {
+            if(src != null) out.append(src.toString());
+        }
     }
 
-    public static abstract class StringToNumberConverter<T extends Number> implements Converter<String, T> {
+    public static abstract class StringToNumberConverter<T extends Number> extends AbstractStringParser<T> implements TryConverter<String, T> {
+        protected static final String NOT_A_NUMBER = "Not a number";
         protected abstract T fromString(final String value, TypeInfo<T> type);
+
+        /**
+         * Parse not empty value from UTF-8 bytes. Default implementation decodes string and passes it to {@link #fromString(String, TypeInfo)}
+         */
+        protected T fromBytes(final byte[] buf, final int offset, final int length, TypeInfo<T> type) {
+            return fromString(decode(buf, offset, length), type);
+        }
+
+        @Override
+        public T parse(byte[] buf, int offset, int length, TypeInfo<T> dstType) throws ConversionException {
+            if(length == 0) return defaultValue;
+            try {
+                return fromBytes(buf, offset, length, dstType);
+            } catch(Exception e) {
+                throw parseException(buf, offset, length, dstType, e);
+            }
+        }
+
+        /**
+         * Parse not empty value storing result. Default implementation catches exceptions of {@link #fromString(String, TypeInfo)},
+         * converters should override it to validate value without exceptions.
+         */
+        protected boolean tryFromString(final String value, TypeInfo<T> type, ConversionResult<T> result) {
+            try {
+                result.success(fromString(value, type));
+                return true;
+            } catch(Exception e) {
+                result.failure(NOT_A_NUMBER);
+                return false;
+            }
+        }
+
+        @Override
+        public boolean tryConvert(String src, TypeInfo<String> srcType, TypeInfo<T> dstType, ConversionResult<T> result) {
+            if (src == null || src.isEmpty()) {
+                result.success(defaultValue);
+                return true;
+            }
+            return tryFromString(src, dstType, result);
+        }
+
         protected final T defaultValue;
         public StringToNumberConverter(T defaultValue) {this.defaultValue = defaultValue;}
         @Override
@@ -78,6 +138,22 @@ public class StandardConverters {
         protected Integer fromString(final String value, TypeInfo<Integer> type) {
             return Integer.valueOf(value);
         }
+
+        @Override
+        protected Integer fromBytes(final byte[] buf, final int offset, final int length, TypeInfo<Integer> type) {
+            if(!Decimals.isLong(buf, offset, offset + length, Integer.MIN_VALUE, Integer.MAX_VALUE)) throw new NumberFormatException(NOT_A_NUMBER);
+            return (int) Decimals.parseValidLong(buf, offset, offset + length);
+        }
+
+        @Override
+        protected boolean tryFromString(final String value, TypeInfo<Integer> type, ConversionResult<Integer> result) {
+            if(!Decimals.isLong(value, 0, value.length(), Integer.MIN_VALUE, Integer.MAX_VALUE)) {
+                result.failure(NOT_A_NUMBER);
+                return false;
+            }
+            result.success((int) Decimals.parseValidLong(value, 0, value.length()));
+            return true;
+        }
     }
 
     public static class ShortConverter extends StringToNumberConverter<Short> {
@@ -89,6 +165,16 @@ public class StandardConverters {
         protected Short fromString(final String value, TypeInfo<Short> type) {
             return Short.valueOf(value);
         }
+
+        @Override
+        protected boolean tryFromString(final String value, TypeInfo<Short> type, ConversionResult<Short> result) {
+            if(!Decimals.isLong(value, 0, value.length(), Short.MIN_VALUE, Short.MAX_VALUE)) {
+                result.failure(NOT_A_NUMBER);
+                return false;
+            }
+            result.success((short) Decimals.parseValidLong(value, 0, value.length()));
+            return true;
+        }
     }
 
     public static class ByteConverter extends StringToNumberConverter<Byte> {
@@ -100,6 +186,16 @@ public class StandardConverters {
         protected Byte fromString(final String value, TypeInfo<Byte> type) {
             return Byte.parseByte(value);
         }
+
+        @Override
+        protected boolean tryFromString(final String value, TypeInfo<Byte> type, ConversionResult<Byte> result) {
+            if(!Decimals.isLong(value, 0, value.length(), Byte.MIN_VALUE, Byte.MAX_VALUE)) {
+                result.failure(NOT_A_NUMBER);
+                return false;
+            }
+            result.success((byte) Decimals.parseValidLong(value, 0, value.length()));
+            return true;
+        }
     }
 
     public static class LongConverter extends StringToNumberConverter<Long> {
@@ -111,6 +207,22 @@ public class StandardConverters {
         protected Long fromString(final String value, TypeInfo<Long> type) {
             return Long.parseLong(value);
         }
+
+        @Override
+        protected Long fromBytes(final byte[] buf, final int offset, final int length, TypeInfo<Long> type) {
+            if(!Decimals.isLong(buf, offset, offset + length, Long.MIN_VALUE, Long.MAX_VALUE)) throw new NumberFormatException(NOT_A_NUMBER);
+            return Decimals.parseValidLong(buf, offset, offset + length);
+        }
+
+        @Override
+        protected boolean tryFromString(final String value, TypeInfo<Long> type, ConversionResult<Long> result) {
+            if(!Decimals.isLong(value, 0, value.length(), Long.MIN_VALUE, Long.MAX_VALUE)) {
+                result.failure(NOT_A_NUMBER);
+                return false;
+            }
+            result.success(Decimals.parseValidLong(value, 0, value.length()));
+            return true;
+        }
     }
 
     public static class FloatConverter extends StringToNumberConverter<Float> {
@@ -133,6 +245,11 @@ public class StandardConverters {
         protected Double fromString(final String value, TypeInfo<Double> type) {
             return Double.parseDouble(value);
         }
+
+        @Override
+        protected Double fromBytes(final byte[] buf, final int offset, final int length, TypeInfo<Double> type) {
+            return parseDouble(buf, offset, offset + length);
+        }
     }
 
     public static class BigDecimalConverter extends StringToNumberConverter<BigDecimal> {
@@ -148,6 +265,11 @@ public class StandardConverters {
                 return new BigDecimal(value);
             }
         }
+
+        @Override
+        protected BigDecimal fromBytes(final byte[] buf, final int offset, final int length, TypeInfo<BigDecimal> type) {
+            return parseBigDecimal(buf, offset, offset + length);
+        }
     }
 
     public static class BigIntegerConverter extends StringToNumberConverter<BigInteger> {
@@ -166,32 +288,49 @@ public class StandardConverters {
 
     public static class DateStringConverter implements TwoWayConverter<String, Date> {
         public static final String DEFAULT_FORMAT = "yyyy-MM-dd'T'HH:mm:ss";
-        private static DateFormat createFormat(TypeInfo<?> typeInfo) {
+        /**
+         * Formats are not thread safe so each thread gets own instance per pattern
+         */
+        private static final ConcurrentMap<String, ThreadLocal<DateFormat>> FORMATS = new ConcurrentHashMap<>();
+
+        private static String pattern(TypeInfo<?> typeInfo) {
             AnnotatedNode an = typeInfo.getAnnotatedNode();
-            String format = DEFAULT_FORMAT;
             if(an != null) {
                 Format fmt = an.getAnnotation(Format.class);
                 if(fmt != null && !fmt.value().isEmpty()) {
-                    format = fmt.value();
+                    return fmt.value();
                 }
             }
-            SimpleDateFormat sdf = new SimpleDateFormat(format);
-            sdf.setLenient(false);
-            return sdf;
+            return DEFAULT_FORMAT;
+        }
+
+        /**
+         * Get non lenient format for the pattern cached for current thread
+         */
+        protected static DateFormat dateFormat(final String pattern) {
+            ThreadLocal<DateFormat> format = FORMATS.get(pattern);
+            if(format == null) {
+                ThreadLocal<DateFormat> newFormat = new ThreadLocal<DateFormat>() {
+                    @Override
+                    protected DateFormat initialValue() {
+                        SimpleDateFormat sdf = new SimpleDateFormat(pattern);
+                        sdf.setLenient(false);
+                        return sdf;
+                    }
+                };
+                format = FORMATS.putIfAbsent(pattern, newFormat);
+                if(format == null) format = newFormat;
+            }
+            return format.get();
+        }
+
+        private static DateFormat createFormat(TypeInfo<?> typeInfo) {
+            return dateFormat(pattern(typeInfo));
         }
+
         @Override
         public Converter<String, Date> getDirect() {
-            return new Converter<String, Date>() {
-                @Override
-                public  Date convert(String src, TypeInfo<String> srcType, TypeInfo<Date> dstType) throws ConversionException {
-                    if(src == null || src.isEmpty()) return null;
-                    try {
-                        return createFormat(dstType).parse(src);
-                    } catch (ParseException e) {
-                        throw new ConversionException(src, srcType, dstType, e);
-                    }
-                }
-            };
+            return new DateParser();
         }
 
         @Override
@@ -204,14 +343,89 @@ public class StandardConverters {
                 }
             };
         }
+
+        /**
+         * Parser of dates. Values in default format are parsed from bytes directly.
+         */
+        public static class DateParser extends AbstractStringParser<Date> implements TryConverter<String, Date> {
+            private static final ThreadLocal<Calendar> CALENDAR = new ThreadLocal<Calendar>() {
+                @Override
+                protected Calendar initialValue() {
+                    Calendar calendar = Calendar.getInstance();
+                    calendar.setLenient(false);
+                    return calendar;
+                }
+            };
+
+            @Override
+            public Date convert(String src, TypeInfo<String> srcType, TypeInfo<Date> dstType) throws ConversionException {
+                if(src == null || src.isEmpty()) return null;
+                try {
+                    return createFormat(dstType).parse(src);
+                } catch (ParseException e) {
+                    throw new ConversionException(src, srcType, dstType, e);
+                }
+            }
+
+            @Override
+            public boolean tryConvert(String src, TypeInfo<String> srcType, TypeInfo<Date> dstType, ConversionResult<Date> result) {
+                if(src == null || src.isEmpty()) {
+                    result.success(null);
+                    return true;
+                }
+                Date res = createFormat(dstType).parse(src, new ParsePosition(0));
+                if(res == null) {
+                    result.failure("Not a date");
+                    return false;
+                }
+                result.success(res);
+                return true;
+            }
+
+            @Override
+            public Date parse(byte[] buf, int offset, int length, TypeInfo<Date> dstType) throws ConversionException {
+                if(length == 0) return null;
+                String pattern = pattern(dstType);
+                if(pattern.equals(DEFAULT_FORMAT) && length == 19 && buf[offset + 4] == '-' && buf[offset + 7] == '-'
+                        && buf[offset + 10] == 'T' && buf[offset + 13] == ':' && buf[offset + 16] == ':') {
+                    try {
+                        Calendar calendar = CALENDAR.get();
+                        calendar.clear();
+                        calendar.set(digits(buf, offset, 4), digits(buf, offset + 5, 2) - 1, digits(buf, offset + 8, 2),
+                                digits(buf, offset + 11, 2), digits(buf, offset + 14, 2), digits(buf, offset + 17, 2));
+                        return calendar.getTime();
+                    } catch (IllegalArgumentException e) {
+                        throw parseException(buf, offset, length, dstType, e);
+                    }
+                }
+                return convert(decode(buf, offset, length), TypeInfo.forClass(String.class), dstType);
+            }
+
+            private static int digits(byte[] buf, int offset, int count) {
+                if(!Decimals.isLong(buf, offset, offset + count, 0, Integer.MAX_VALUE) || buf[offset] == '+' || buf[offset] == '-')
+                    throw new IllegalArgumentException("Not a number");
+                return (int) Decimals.parseValidLong(buf, offset, offset + count);
+            }
+        }
     }
 
-    public static class BooleanConverter implements Converter<String, Boolean> {
+    public static class BooleanConverter extends AbstractStringParser<Boolean> implements TryConverter<String, Boolean> {
 
         @Override
         public Boolean convert(String src, TypeInfo<String> srcType, TypeInfo<Boolean> dstType) throws ConversionException {
             return Boolean.parseBoolean(src);
         }
+
+        @Override
+        public boolean tryConvert(String src, TypeInfo<String> srcType, TypeInfo<Boolean> dstType, ConversionResult<Boolean> result) {
+            result.success(Boolean.parseBoolean(src));
+            return true;
+        }
+
+        @Override
+        public Boolean parse(byte[] buf, int offset, int length, TypeInfo<Boolean> dstType) {
+            return equalsIgnoreCase(buf, offset, offset + length, "true");
+        }
     }
 
 
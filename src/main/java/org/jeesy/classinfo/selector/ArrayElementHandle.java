@@ -0,0 +1,45 @@
+/*
+ * Copyright 2015 Artem Mironov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jeesy.classinfo.selector;
+
+/**
+ * Handle of array element by index.
+ * @author Artem Mironov
+ */
+public class ArrayElementHandle<PropType> extends PropertyHandle<Object, PropType> {
+    private final int index;
+    private final Class<PropType> propType;
+
+    protected ArrayElementHandle(Class<PropType> propType, int index, Object array) {
+        super(null, array, null);
+        this.index = index;
+        this.propType = propType;
+    }
+
+    public int getIndex() {return index;}
+    public Class<PropType> getPropType() {return propType;}
+
+    @Override
+    public void setValue(PropType value) {
+        CompiledPath.arraySet(container, index, value);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public PropType getValue() {
+        return (PropType) CompiledPath.arrayGet(container, index);
+    }
+}
@@ -0,0 +1,491 @@
+/*
+ * Copyright 2015 Artem Mironov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jeesy.classinfo.selector;
+
+import org.jeesy.classinfo.ClassInfo;
+import org.jeesy.classinfo.ClassInfoScanner;
+import org.jeesy.classinfo.PropertyAccessor;
+import org.jeesy.classinfo.PropertyFunction;
+import org.jeesy.classinfo.PropertyInfo;
+import org.jeesy.classinfo.TypeInfo;
+import org.jeesy.classinfo.Utils;
+import org.jeesy.classinfo.converter.api.ConversionService;
+
+import java.lang.reflect.Array;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Property path compiled against concrete root class.
+ * Every segment is resolved once to a specialized step: bound property function, list or array element by index
+ * or map value by key. Evaluation is a flat loop over steps without any lookups by name.
+ * Properties of elements what static type is unknown (e.g. raw collections) are resolved by runtime class of the element.
+ * Instances are immutable and thread safe.
+ * @see PropertySelector#compile(Class)
+ * @author Artem Mironov
+ */
+public class CompiledPath {
+    private final Class<?> rootType;
+    private final Step[] steps;
+    final PropertySelector.Segment[] segments;
+
+    CompiledPath(Class<?> rootType, PropertySelector.Segment[] path) {
+        this.rootType = rootType;
+        this.segments = path;
+        steps = new Step[path.length];
+        TypeInfo<?> type = TypeInfo.forClass(rootType);
+        ClassInfo<?> classInfo = null;
+        boolean introspected = false;
+        for(int i = 0; i < path.length; i++) {
+            PropertySelector.Segment segment = path[i];
+            Class<?> raw = type.getRawType();
+            Step step;
+            if(segment.kind == PropertySelector.Segment.PROPERTY) {
+                if(!introspected && raw != Object.class) classInfo = ClassInfoScanner.classInfo(raw);
+                if(classInfo == null && raw == Object.class) {
+                    step = new DynamicPropertyStep(segment.name);
+                } else {
+                    PropertyInfo<?> pi = classInfo != null ? classInfo.getPropertyInfo(segment.name) : null;
+                    if(pi == null) throw new IllegalArgumentException("No property with name "+segment.name+" exists in "+raw.getName());
+                    step = new PropertyStep(pi);
+                }
+            } else if(segment.kind == PropertySelector.Segment.INDEX) {
+                if(List.class.isAssignableFrom(raw)) step = new ListIndexStep(segment.index, parameter(type, List.class, 0));
+                else if(raw.isArray()) step = new ArrayIndexStep(segment.index, type.getComponentType());
+                else if(raw == Object.class) step = new IndexStep(segment.index);
+                else throw new IllegalArgumentException("Element "+segment+" of type "+raw.getName()+" is not indexed");
+            } else {
+                if(Map.class.isAssignableFrom(raw) || raw == Object.class) step = new MapKeyStep(segment.name, parameter(type, Map.class, 1));
+                else throw new IllegalArgumentException("Element "+segment+" of type "+raw.getName()+" is not a map");
+            }
+            steps[i] = step;
+            type = step.typeInfo;
+            //nested class info of property is used, so basic types are not introspected
+            introspected = step instanceof PropertyStep;
+            classInfo = introspected ? ((PropertyStep) step).info.getClassInfo() : null;
+        }
+    }
+
+    private static TypeInfo<?> parameter(TypeInfo<?> type, Class<?> supertype, int index) {
+        if(!supertype.isAssignableFrom(type.getRawType())) return TypeInfo.forClass(Object.class);
+        TypeInfo<?> res = type.getSupertype(supertype).resolveParameter(index);
+        return res != null ? res : TypeInfo.forClass(Object.class);
+    }
+
+    public Class<?> getRootType() {return rootType;}
+
+    /**
+     * Number of segments in the path
+     */
+    public int length() {return steps.length;}
+
+    /**
+     * Property resolved for segment with specified index
+     * @return property info or null if segment is not a property of statically known class
+     */
+    public PropertyInfo<?> getProperty(int index) {
+        return steps[index] instanceof PropertyStep ? ((PropertyStep) steps[index]).info : null;
+    }
+
+    /**
+     * Last property of the path or null if path ends with index, key or property of unknown class
+     */
+    public PropertyInfo<?> getLeaf() {return getProperty(steps.length - 1);}
+
+    /**
+     * Static type of the value selected by path
+     */
+    public Class<?> getLeafType() {return steps[steps.length - 1].type;}
+
+    Step step(int index) {return steps[index];}
+
+    /**
+     * Read value by path.
+     * @param bean instance of root type
+     * @return selected value or null if any element on path is null, missing list element or missing key
+     */
+    public Object get(Object bean) {
+        Object current = bean;
+        for(int i = 0; i < steps.length && current != null; i++)
+            current = steps[i].get(current);
+        return current;
+    }
+
+    /**
+     * Read int value by path. Primitive properties are read without boxing, other numbers are narrowed.
+     * @param nullValue value returned if any element on path or the value itself is null
+     * @throws IllegalStateException if value is not a number
+     */
+    public int getInt(Object bean, int nullValue) {
+        Object container = leafContainer(bean);
+        if(container == null) return nullValue;
+        if(steps.length == 0) return number(container).intValue();
+        Step leaf = steps[steps.length - 1];
+        if(leaf.unboxed) return leaf.getInt(container);
+        Object value = leaf.get(container);
+        return value == null ? nullValue : leaf.toNumber(value).intValue();
+    }
+
+    /**
+     * Read long value by path. Primitive properties are read without boxing.
+     * @param nullValue value returned if any element on path or the value itself is null
+     * @throws IllegalStateException if value is not a number
+     */
+    public long getLong(Object bean, long nullValue) {
+        Object container = leafContainer(bean);
+        if(container == null) return nullValue;
+        if(steps.length == 0) return number(container).longValue();
+        Step leaf = steps[steps.length - 1];
+        if(leaf.unboxed) return leaf.getLong(container);
+        Object value = leaf.get(container);
+        return value == null ? nullValue : leaf.toNumber(value).longValue();
+    }
+
+    /**
+     * Read double value by path. Primitive properties are read without boxing.
+     * @param nullValue value returned if any element on path or the value itself is null
+     * @throws IllegalStateException if value is not a number
+     */
+    public double getDouble(Object bean, double nullValue) {
+        Object container = leafContainer(bean);
+        if(container == null) return nullValue;
+        if(steps.length == 0) return number(container).doubleValue();
+        Step leaf = steps[steps.length - 1];
+        if(leaf.unboxed) return leaf.getDouble(container);
+        Object value = leaf.get(container);
+        return value == null ? nullValue : leaf.toNumber(value).doubleValue();
+    }
+
+    private static Number number(Object value) {
+        if(value instanceof Number) return (Number) value;
+        throw new IllegalStateException("Value is not a number: "+value.getClass().getName());
+    }
+
+    /**
+     * Walk to the instance what holds the last element of the path
+     * @return container or null if any element on path is null
+     */
+    private Object leafContainer(Object bean) {
+        Object current = bean;
+        for(int i = 0; i < steps.length - 1 && current != null; i++)
+            current = steps[i].get(current);
+        return current;
+    }
+
+    /**
+     * Write value by path. Lists are extended with nulls up to the index if required.
+     * @param instantiationBehaviour used to create null elements on path, if null {@link IllegalStateException} is thrown for null element
+     */
+    public void set(Object bean, Object value, InstantiationBehaviour instantiationBehaviour) {
+        steps[steps.length - 1].set(container(bean, instantiationBehaviour), value);
+    }
+
+    /**
+     * Create handle for the last element of the path
+     * @param instantiationBehaviour used to create null elements on path, if null {@link IllegalStateException} is thrown for null element
+     */
+    public PropertyHandle handle(Object bean, InstantiationBehaviour instantiationBehaviour) {
+        return steps[steps.length - 1].handle(container(bean, instantiationBehaviour), instantiationBehaviour);
+    }
+
+    /**
+     * Find instance what holds the last element of the path.
+     * Elements created by instantiationBehaviour for indexed and mapped values receive null annotated node.
+     * @param instantiationBehaviour used to create null elements on path, if null {@link IllegalStateException} is thrown for null element
+     */
+    public Object container(Object bean, InstantiationBehaviour instantiationBehaviour) {
+        Object current = bean;
+        for(int i = 0; i < steps.length - 1; i++)
+            current = child(i, current, instantiationBehaviour);
+        return current;
+    }
+
+    /**
+     * Read element of the path with specified index from its container creating it if it is null
+     */
+    Object child(int index, Object container, InstantiationBehaviour instantiationBehaviour) {
+        Step step = steps[index];
+        Object res = step.get(container);
+        if(res == null) {
+            if(instantiationBehaviour == null) throw new IllegalStateException("element "+step+" is null on path");
+            if(step.type == Object.class) throw new IllegalStateException("Can't create element "+step+" of unknown type");
+            res = instantiationBehaviour.newInstance(step.type, step instanceof PropertyStep ? ((PropertyStep) step).info : null);
+            step.set(container, res);
+        }
+        return res;
+    }
+
+    /**
+     * Set last element of the path in its container.
+     * Value what is not an instance of element type is converted by conversionService.
+     */
+    @SuppressWarnings("unchecked")
+    void assign(Object container, Object value, ConversionService conversionService) {
+        Step leaf = steps[steps.length - 1];
+        if(value != null && !Utils.wrap(leaf.type).isInstance(value))
+            value = conversionService.convertType(value, (TypeInfo) TypeInfo.forClass(value.getClass()), leaf.typeInfo);
+        leaf.set(container, value);
+    }
+
+    @SuppressWarnings("unchecked")
+    static Object listGet(List list, int index) {
+        return index < list.size() ? list.get(index) : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    static void listSet(List list, int index, Object value) {
+        while(list.size() < index) list.add(null);
+        if(index == list.size()) list.add(value);
+        else list.set(index, value);
+    }
+
+    static Object arrayGet(Object array, int index) {
+        if(array instanceof Object[]) {
+            Object[] arr = (Object[]) array;
+            return index < arr.length ? arr[index] : null;
+        }
+        return index < Array.getLength(array) ? Array.get(array, index) : null;
+    }
+
+    static void arraySet(Object array, int index, Object value) {
+        if(array instanceof Object[]) ((Object[]) array)[index] = value;
+        else Array.set(array, index, value);
+    }
+
+    /**
+     * Single evaluation step of compiled path
+     */
+    static abstract class Step {
+        final TypeInfo<?> typeInfo;
+        final Class<?> type;
+        /** primitive value what can be read by {@link #getInt(Object)} and others without boxing */
+        final boolean unboxed;
+
+        Step(TypeInfo<?> typeInfo) {
+            this(typeInfo, false);
+        }
+
+        Step(TypeInfo<?> typeInfo, boolean unboxed) {
+            this.typeInfo = typeInfo;
+            this.type = typeInfo.getRawType();
+            this.unboxed = unboxed;
+        }
+
+        abstract Object get(Object container);
+        abstract void set(Object container, Object value);
+        abstract PropertyHandle handle(Object container, InstantiationBehaviour instantiationBehaviour);
+
+        /**
+         * Read numeric value, primitive properties are read without boxing.
+         * @return value or {@link Double#NaN} for null
+         */
+        double getDouble(Object container) {
+            return toDouble(get(container));
+        }
+
+        int getInt(Object container) {
+            return toNumber(get(container)).intValue();
+        }
+
+        long getLong(Object container) {
+            return toNumber(get(container)).longValue();
+        }
+
+        double toDouble(Object value) {
+            if(value == null) return Double.NaN;
+            if(value instanceof Boolean) return (Boolean) value ? 1 : 0;
+            return toNumber(value).doubleValue();
+        }
+
+        Number toNumber(Object value) {
+            if(value instanceof Number) return (Number) value;
+            throw new IllegalStateException("Value of "+this+" is not a number: "+(value == null ? null : value.getClass().getName()));
+        }
+    }
+
+    static final class PropertyStep extends Step {
+        final PropertyInfo info;
+        final PropertyFunction function;
+        final PropertyAccessor accessor;
+
+        PropertyStep(PropertyInfo<?> info) {
+            super(info.getTypeInfo(), isUnboxed(info.getType()));
+            this.info = info;
+            this.function = (PropertyFunction) info.getter();
+            this.accessor = info.getAccessor();
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override Object get(Object container) {return function.get(container);}
+        @SuppressWarnings("unchecked")
+        @Override void set(Object container, Object value) {function.set(container, value);}
+        @SuppressWarnings("unchecked")
+        @Override PropertyHandle handle(Object container, InstantiationBehaviour instantiationBehaviour) {
+            return new PropertyHandle(info, container, instantiationBehaviour);
+        }
+        private static boolean isUnboxed(Class<?> type) {
+            return type == int.class || type == long.class || type == double.class;
+        }
+
+        //primitive properties are narrowed after primitive read, same as Number.intValue() and others
+        @Override double getDouble(Object container) {
+            if(type == double.class) return accessor.getDouble(container);
+            if(type == int.class) return accessor.getInt(container);
+            if(type == long.class) return accessor.getLong(container);
+            return toDouble(function.get(container));
+        }
+        @Override int getInt(Object container) {
+            if(type == int.class) return accessor.getInt(container);
+            if(type == long.class) return (int) accessor.getLong(container);
+            if(type == double.class) return (int) accessor.getDouble(container);
+            return toNumber(function.get(container)).intValue();
+        }
+        @Override long getLong(Object container) {
+            if(type == long.class) return accessor.getLong(container);
+            if(type == int.class) return accessor.getInt(container);
+            if(type == double.class) return (long) accessor.getDouble(container);
+            return toNumber(function.get(container)).longValue();
+        }
+        @Override public String toString() {return info.getName();}
+    }
+
+    /**
+     * Property of element what class is not known statically. Property is looked up by runtime class
+     * and the last binding is kept, so monomorphic paths do not repeat the lookup.
+     */
+    static final class DynamicPropertyStep extends Step {
+        private final String name;
+        private volatile Binding last;
+
+        DynamicPropertyStep(String name) {
+            super(TypeInfo.forClass(Object.class));
+            this.name = name;
+        }
+
+        PropertyStep bind(Object container) {
+            Binding res = last;
+            if(res != null && res.owner == container.getClass()) return res.step;
+            PropertyInfo<?> pi = ClassInfoScanner.classInfo(container.getClass()).getPropertyInfo(name);
+            if(pi == null) throw new IllegalArgumentException("No property with name "+name+" exists in "+container.getClass().getName());
+            res = new Binding(container.getClass(), new PropertyStep(pi));
+            last = res;
+            return res.step;
+        }
+
+        private static final class Binding {
+            final Class<?> owner;
+            final PropertyStep step;
+
+            Binding(Class<?> owner, PropertyStep step) {
+                this.owner = owner;
+                this.step = step;
+            }
+        }
+
+        @Override Object get(Object container) {return bind(container).get(container);}
+        @Override void set(Object container, Object value) {bind(container).set(container, value);}
+        @Override PropertyHandle handle(Object container, InstantiationBehaviour instantiationBehaviour) {
+            return bind(container).handle(container, instantiationBehaviour);
+        }
+        @Override double getDouble(Object container) {return bind(container).getDouble(container);}
+        @Override public String toString() {return name;}
+    }
+
+    static final class ListIndexStep extends Step {
+        final int index;
+
+        ListIndexStep(int index, TypeInfo<?> elementType) {
+            super(elementType);
+            this.index = index;
+        }
+
+        @Override Object get(Object container) {return listGet((List) container, index);}
+        @Override void set(Object container, Object value) {listSet((List) container, index, value);}
+        @SuppressWarnings("unchecked")
+        @Override PropertyHandle handle(Object container, InstantiationBehaviour instantiationBehaviour) {
+            return new ListPropertyHandler(type, index, (List) container);
+        }
+        @Override public String toString() {return "["+index+"]";}
+    }
+
+    static final class ArrayIndexStep extends Step {
+        final int index;
+
+        ArrayIndexStep(int index, TypeInfo<?> componentType) {
+            super(componentType);
+            this.index = index;
+        }
+
+        @Override Object get(Object container) {return arrayGet(container, index);}
+        @Override void set(Object container, Object value) {arraySet(container, index, value);}
+        @SuppressWarnings("unchecked")
+        @Override PropertyHandle handle(Object container, InstantiationBehaviour instantiationBehaviour) {
+            return new ArrayElementHandle(type, index, container);
+        }
+        @Override public String toString() {return "["+index+"]";}
+    }
+
+    /**
+     * Index of element what static type is unknown, dispatches on list or array at runtime
+     */
+    static final class IndexStep extends Step {
+        final int index;
+
+        IndexStep(int index) {
+            super(TypeInfo.forClass(Object.class));
+            this.index = index;
+        }
+
+        @Override Object get(Object container) {
+            if(container instanceof List) return listGet((List) container, index);
+            if(container.getClass().isArray()) return arrayGet(container, index);
+            throw notIndexed(container);
+        }
+        @Override void set(Object container, Object value) {
+            if(container instanceof List) listSet((List) container, index, value);
+            else if(container.getClass().isArray()) arraySet(container, index, value);
+            else throw notIndexed(container);
+        }
+        @SuppressWarnings("unchecked")
+        @Override PropertyHandle handle(Object container, InstantiationBehaviour instantiationBehaviour) {
+            if(container instanceof List) return new ListPropertyHandler(Object.class, index, (List) container);
+            if(container.getClass().isArray()) return new ArrayElementHandle(Object.class, index, container);
+            throw notIndexed(container);
+        }
+        private IllegalStateException notIndexed(Object container) {
+            return new IllegalStateException("Element of type "+container.getClass().getName()+" is not indexed");
+        }
+        @Override public String toString() {return "["+index+"]";}
+    }
+
+    static final class MapKeyStep extends Step {
+        final String key;
+
+        MapKeyStep(String key, TypeInfo<?> valueType) {
+            super(valueType);
+            this.key = key;
+        }
+
+        @Override Object get(Object container) {return ((Map) container).get(key);}
+        @SuppressWarnings("unchecked")
+        @Override void set(Object container, Object value) {((Map) container).put(key, value);}
+        @SuppressWarnings("unchecked")
+        @Override PropertyHandle handle(Object container, InstantiationBehaviour instantiationBehaviour) {
+            return new MappingPropertyHandle(key, type, (Map) container);
+        }
+        @Override public String toString() {return "['"+key+"']";}
+    }
+}
@@ -19,10 +19,30 @@ package org.jeesy.classinfo.selector;
 import java.util.List;
 
 /**
+ * Handle of list element by index. List is extended with nulls up to the index on write.
  * @author Artem Mironov
  */
 public class ListPropertyHandler<PropType> extends PropertyHandle<List, PropType> {
+    private final int index;
+    private final Class<PropType> propType;
+
     protected ListPropertyHandler(Class<PropType> propType, int index, List container) {
         super(null, container, null);
+        this.index = index;
+        this.propType = propType;
+    }
+
+    public int getIndex() {return index;}
+    public Class<PropType> getPropType() {return propType;}
+
+    @Override
+    public void setValue(PropType value) {
+        CompiledPath.listSet(container, index, value);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public PropType getValue() {
+        return (PropType) CompiledPath.listGet(container, index);
     }
 }
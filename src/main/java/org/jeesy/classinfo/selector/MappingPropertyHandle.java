@@ -18,11 +18,12 @@ package org.jeesy.classinfo.selector;
 import java.util.Map;
 
 /**
+ * Handle of map value by key.
  * @author Artem Mironov
  */
 public class MappingPropertyHandle<PropType> extends PropertyHandle<Map, PropType> {
-    private String key;
-    private Class<PropType> propType;
+    private final String key;
+    private final Class<PropType> propType;
 
     MappingPropertyHandle(String key, Class<PropType> propType, Map dict) {
         super(null, dict, null);
@@ -30,11 +31,15 @@ public class MappingPropertyHandle<PropType> extends PropertyHandle<Map, PropTyp
         this.propType = propType;
     }
 
+    public String getKey() {return key;}
+    public Class<PropType> getPropType() {return propType;}
 
+    @SuppressWarnings("unchecked")
     @Override
-    public void setValue(Object value) {
+    public void setValue(PropType value) {
         container.put(key, value);
     }
+    @SuppressWarnings("unchecked")
     @Override
     public PropType getValue() {
         return (PropType) container.get(key);
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2015 Artem Mironov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jeesy.classinfo.selector;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Evaluates many selectors against the same root in one traversal.
+ * Paths are merged into a trie by common prefix, so every shared element is read once per root,
+ * e.g. for {@code customer.address.city} and {@code customer.address.zip} {@code customer} and {@code address} are read once.
+ * Trie is compiled once per root class. Results are written to a row: column per selector in order of creation.
+ * Null elements on path produce null values (or {@link Double#NaN} for numeric rows).
+ * Instances are thread safe.
+ * @author Artem Mironov
+ */
+public class Projection {
+    private final PropertySelector[] selectors;
+    private final ConcurrentMap<Class<?>, Plan> plans = new ConcurrentHashMap<>();
+    private volatile Plan last;
+
+    protected Projection(PropertySelector[] selectors) {
+        this.selectors = selectors.clone();
+    }
+
+    public static Projection of(PropertySelector... selectors) {
+        return new Projection(selectors);
+    }
+
+    /**
+     * @throws IllegalArgumentException if some of paths is malformed
+     */
+    public static Projection of(String... paths) {
+        PropertySelector[] selectors = new PropertySelector[paths.length];
+        for(int i = 0; i < paths.length; i++) selectors[i] = PropertySelector.parse(paths[i]);
+        return new Projection(selectors);
+    }
+
+    /**
+     * Number of columns
+     */
+    public int size() {return selectors.length;}
+
+    public PropertySelector getSelector(int column) {return selectors[column];}
+
+    /**
+     * Evaluate all selectors against root
+     * @return new row with value per selector
+     */
+    public Object[] evaluate(Object root) {
+        Object[] row = new Object[selectors.length];
+        evaluate(root, row, 0);
+        return row;
+    }
+
+    /**
+     * Evaluate all selectors against root and write values to {@code buffer} starting from {@code offset}
+     */
+    public void evaluate(Object root, Object[] buffer, int offset) {
+        Plan plan = planFor(root.getClass());
+        Object[] values = plan.traverse(root);
+        for(int col = 0; col < plan.leaves.length; col++) {
+            int self = plan.self[col];
+            if(self >= 0) {
+                buffer[offset + col] = values[self];
+            } else {
+                Object container = container(plan, col, root, values);
+                CompiledPath.Step leaf = plan.leaves[col];
+                buffer[offset + col] = container == null || leaf == null ? container : leaf.get(container);
+            }
+        }
+    }
+
+    /**
+     * Evaluate all selectors against root and write numeric values to {@code buffer} starting from {@code offset}.
+     * Primitive properties are read without boxing, booleans are written as 1 or 0.
+     * @throws IllegalStateException if some of values is not a number
+     */
+    public void evaluate(Object root, double[] buffer, int offset) {
+        Plan plan = planFor(root.getClass());
+        Object[] values = plan.traverse(root);
+        for(int col = 0; col < plan.leaves.length; col++) {
+            int self = plan.self[col];
+            CompiledPath.Step leaf = plan.leaves[col];
+            if(self >= 0) {
+                buffer[offset + col] = leaf.toDouble(values[self]);
+            } else {
+                Object container = container(plan, col, root, values);
+                buffer[offset + col] = container == null ? Double.NaN
+                        : leaf != null ? leaf.getDouble(container) : toDouble(container);
+            }
+        }
+    }
+
+    private static Object container(Plan plan, int col, Object root, Object[] values) {
+        int parent = plan.containers[col];
+        return parent < 0 ? root : values[parent];
+    }
+
+    private static double toDouble(Object value) {
+        if(value instanceof Number) return ((Number) value).doubleValue();
+        throw new IllegalStateException("Value is not a number: "+value.getClass().getName());
+    }
+
+    protected Plan planFor(Class<?> rootType) {
+        Plan res = last;
+        if(res != null && res.rootType == rootType) return res;
+        res = plans.get(rootType);
+        if(res == null) {
+            res = new Plan(rootType, selectors);
+            Plan prev = plans.putIfAbsent(rootType, res);
+            if(prev != null) res = prev;
+        }
+        last = res;
+        return res;
+    }
+
+    /**
+     * Trie compiled for root class and flattened in preorder.
+     * Inner nodes are evaluated in one pass, each leaf is read from the value of its parent node.
+     */
+    protected static class Plan {
+        final Class<?> rootType;
+        /** steps of inner nodes in preorder */
+        final CompiledPath.Step[] steps;
+        /** index of parent inner node or -1 for root */
+        final int[] parents;
+        /** last step of each column, null for empty path */
+        final CompiledPath.Step[] leaves;
+        /** inner node what holds leaf of each column or -1 for root */
+        final int[] containers;
+        /** inner node of column if leaf is also an inner node, otherwise -1 */
+        final int[] self;
+
+        Plan(Class<?> rootType, PropertySelector[] selectors) {
+            this.rootType = rootType;
+            Node trie = new Node(null, null);
+            Node[] leafNodes = new Node[selectors.length];
+            for(int col = 0; col < selectors.length; col++) {
+                PropertySelector.Segment[] segments = selectors[col].segments();
+                CompiledPath path = selectors[col].compile(rootType);
+                Node node = trie;
+                for(int i = 0; i < segments.length; i++) {
+                    Node child = node.children.get(segments[i]);
+                    if(child == null) {
+                        child = new Node(node, path.step(i));
+                        node.children.put(segments[i], child);
+                    }
+                    node = child;
+                }
+                leafNodes[col] = node;
+            }
+            List<Node> inner = new ArrayList<>();
+            for(Node child : trie.children.values()) flatten(child, inner);
+            steps = new CompiledPath.Step[inner.size()];
+            parents = new int[inner.size()];
+            for(int i = 0; i < steps.length; i++) {
+                Node node = inner.get(i);
+                steps[i] = node.step;
+                parents[i] = node.parent.index;
+            }
+            leaves = new CompiledPath.Step[selectors.length];
+            containers = new int[selectors.length];
+            self = new int[selectors.length];
+            for(int col = 0; col < selectors.length; col++) {
+                Node node = leafNodes[col];
+                leaves[col] = node.step;
+                containers[col] = node.parent != null ? node.parent.index : -1;
+                self[col] = node.index;
+            }
+        }
+
+        private static void flatten(Node node, List<Node> inner) {
+            if(node.children.isEmpty()) return;
+            node.index = inner.size();
+            inner.add(node);
+            for(Node child : node.children.values()) flatten(child, inner);
+        }
+
+        /**
+         * Evaluate inner nodes
+         * @return value per inner node
+         */
+        Object[] traverse(Object root) {
+            Object[] values = new Object[steps.length];
+            for(int i = 0; i < steps.length; i++) {
+                int parent = parents[i];
+                Object container = parent < 0 ? root : values[parent];
+                values[i] = container == null ? null : steps[i].get(container);
+            }
+            return values;
+        }
+    }
+
+    private static final class Node {
+        final Node parent;
+        final CompiledPath.Step step;
+        final Map<PropertySelector.Segment, Node> children = new LinkedHashMap<>();
+        int index = -1;
+
+        Node(Node parent, CompiledPath.Step step) {
+            this.parent = parent;
+            this.step = step;
+        }
+    }
+}
@@ -15,24 +15,58 @@
  */
 package org.jeesy.classinfo.selector;
 
-import org.jeesy.classinfo.ClassInfo;
 import org.jeesy.classinfo.ClassInfoScanner;
-import org.jeesy.classinfo.PropertyInfo;
+import org.jeesy.classinfo.Utils;
+import org.jeesy.classinfo.converter.DefaultConverter;
+import org.jeesy.classinfo.converter.api.ConversionService;
 
+import java.lang.reflect.Array;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
- * All methods what returns selector returns a new instance
+ * All methods what returns selector returns a new instance.
+ * Path consists of property names separated by dots, list or array indexes and map keys in brackets,
+ * e.g. {@code orders[3].lines['sku'].qty}. Keys can be quoted with single or double quotes, backslash escapes next character.
+ * Path is compiled against each root class once, see {@link #compile(Class)}.
  * @author Artem Mironov
  */
 public class PropertySelector {
-    private List<String> path;
+    private final Segment[] path;
     private boolean createIfNull = false;
     private InstantiationBehaviour instantiationBehaviour = new ClassInfoScanner.DefaultInstantiationBehaviour();
+    private final ConcurrentMap<Class<?>, CompiledPath> compiled = new ConcurrentHashMap<>();
+    private volatile CompiledPath last;
+    /** max number of relative paths cached per root class, keys of assigned maps can be arbitrary */
+    private static final int MAX_RELATIVE_PATHS = 1024;
+    private final ConcurrentMap<Class<?>, ConcurrentMap<String, CompiledPath>> relative = new ConcurrentHashMap<>();
 
-    protected PropertySelector(List<String> path) {
+    PropertySelector(Segment[] path) {
         this.path = path;
-        instantiationBehaviour = new ClassInfoScanner.DefaultInstantiationBehaviour();
+    }
+
+    /**
+     * @throws IllegalArgumentException if path is malformed
+     */
+    protected PropertySelector(String path) {
+        this(parsePath(path));
+    }
+
+    /**
+     * Create selector by list of property names, empty names are skipped.
+     * @deprecated use {@link #PropertySelector(String)} what also supports indexes and map keys
+     */
+    @Deprecated
+    protected PropertySelector(List<String> path) {
+        this(propertySegments(path));
+    }
+
+    private static Segment[] propertySegments(List<String> names) {
+        List<Segment> res = new ArrayList<>(names.size());
+        for(String name : names)
+            if(!name.isEmpty()) res.add(new Segment(Segment.PROPERTY, name, -1));
+        return res.toArray(new Segment[res.size()]);
     }
 
     /**
@@ -40,8 +74,10 @@ public class PropertySelector {
      * @param path relative path
      */
     public PropertySelector nested(String path) {
-        PropertySelector nested =  new PropertySelector(this.path);
-        nested.path.addAll(Arrays.asList(path.split("\\.")));
+        Segment[] relative = parsePath(path);
+        Segment[] full = Arrays.copyOf(this.path, this.path.length + relative.length);
+        System.arraycopy(relative, 0, full, this.path.length, relative.length);
+        PropertySelector nested = new PropertySelector(full);
         nested.createIfNull = createIfNull;
         nested.instantiationBehaviour = instantiationBehaviour;
         return nested;
@@ -59,43 +95,354 @@ public class PropertySelector {
         return this;
     }
 
-    protected void selectByPath(List<PropertyHandle> handles, List<String> tmpPath, PropertyInfo info) {
+    /**
+     * Get path compiled for specified root class. Compiled paths are cached by selector.
+     * @throws IllegalArgumentException if some of path elements is not a property
+     */
+    public CompiledPath compile(Class<?> rootType) {
+        CompiledPath res = last;
+        if(res != null && res.getRootType() == rootType) return res;
+        res = compiled.get(rootType);
+        if(res == null) {
+            res = new CompiledPath(rootType, path);
+            CompiledPath prev = compiled.putIfAbsent(rootType, res);
+            if(prev != null) res = prev;
+        }
+        last = res;
+        return res;
+    }
 
+    public PropertyHandle resolve(Object bean) {
+        if(path.length == 0) return null;
+        return compile(bean.getClass()).handle(bean, createIfNull ? instantiationBehaviour : null);
     }
 
-    protected PropertyHandle onProperty(String prop, PropertyHandle current) {
-        return null;
+    /**
+     * Read value by path without creating property handle.
+     * @return value or null if some element on path is null
+     */
+    public Object getValue(Object bean) {
+        if(path.length == 0) return bean;
+        return compile(bean.getClass()).get(bean);
     }
 
-    protected PropertyHandle onMapping(String mappingName, PropertyHandle current) {
-        return null;
+    /**
+     * Write value by path without creating property handle.
+     * Null elements on path are created if {@link #createNullElements()} was requested.
+     */
+    public void setValue(Object bean, Object value) {
+        if(path.length == 0) throw new IllegalStateException("Empty path");
+        compile(bean.getClass()).set(bean, value, createIfNull ? instantiationBehaviour : null);
     }
 
-    protected PropertyHandle onIndexed(int index, PropertyHandle current) {
-        return null;
+    /**
+     * Evaluate selector against every bean of the list.
+     * Path is compiled once per bean class, no handles are created.
+     * @param type type of the column elements, primitive types are wrapped
+     * @return column with value per bean, null for beans with null elements on path
+     * @throws ArrayStoreException if some of values is not an instance of type
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T[] column(List<?> beans, Class<T> type) {
+        T[] res = (T[]) Array.newInstance(Utils.wrap(type), beans.size());
+        CompiledPath path = null;
+        int i = 0;
+        for(Object bean : beans) {
+            if(bean != null) {
+                if(path == null || path.getRootType() != bean.getClass()) path = compile(bean.getClass());
+                res[i] = (T) path.get(bean);
+            }
+            i++;
+        }
+        return res;
     }
 
+    /**
+     * Evaluate selector against every bean of the list into int column.
+     * Primitive int, long and double properties are read by primitive methods of property accessor without boxing,
+     * wrapper and other number values are unboxed.
+     * @param nullValue value used for null beans, null elements on path and null values
+     * @throws IllegalStateException if some of values is not a number
+     */
+    public int[] intColumn(List<?> beans, int nullValue) {
+        int[] res = new int[beans.size()];
+        CompiledPath path = null;
+        int i = 0;
+        for(Object bean : beans) {
+            if(bean == null) {
+                res[i++] = nullValue;
+                continue;
+            }
+            if(path == null || path.getRootType() != bean.getClass()) path = compile(bean.getClass());
+            res[i++] = path.getInt(bean, nullValue);
+        }
+        return res;
+    }
 
-    protected void selectProperties(List<PropertyHandle> handles, ClassInfo classInfo) {
+    /**
+     * Evaluate selector against every bean of the list into long column.
+     * @see #intColumn(List, int)
+     */
+    public long[] longColumn(List<?> beans, long nullValue) {
+        long[] res = new long[beans.size()];
+        CompiledPath path = null;
+        int i = 0;
+        for(Object bean : beans) {
+            if(bean == null) {
+                res[i++] = nullValue;
+                continue;
+            }
+            if(path == null || path.getRootType() != bean.getClass()) path = compile(bean.getClass());
+            res[i++] = path.getLong(bean, nullValue);
+        }
+        return res;
+    }
 
+    /**
+     * Evaluate selector against every bean of the list into double column.
+     * @see #intColumn(List, int)
+     */
+    public double[] doubleColumn(List<?> beans, double nullValue) {
+        double[] res = new double[beans.size()];
+        CompiledPath path = null;
+        int i = 0;
+        for(Object bean : beans) {
+            if(bean == null) {
+                res[i++] = nullValue;
+                continue;
+            }
+            if(path == null || path.getRootType() != bean.getClass()) path = compile(bean.getClass());
+            res[i++] = path.getDouble(bean, nullValue);
+        }
+        return res;
     }
 
-    public PropertyHandle resolve(Object bean) {
-        if(path == null) path = Collections.emptyList();
-        if(path.isEmpty()) {return null;};
-        ClassInfo classInfo = ClassInfoScanner.classInfo(bean.getClass());
-        String pathElm = path.get(0);
-        PropertyInfo pi = classInfo.getPropertyInfo(pathElm);
-        if(pi == null) throw new RuntimeException("Property "+pathElm+" is null on path");
-        PropertyHandle propertyHandle = new PropertyHandle(pi, bean, createIfNull ? instantiationBehaviour : null);
-        return propertyHandle.select(path.subList(1, path.size()));
+    /**
+     * Assign values by paths relative to this selector using default converter.
+     * @see #applyAll(Object, Map, ConversionService)
+     */
+    public void applyAll(Object bean, Map<String, ?> values) {
+        applyAll(bean, values, DefaultConverter.defaultConverter());
     }
 
+    /**
+     * Assign values by paths relative to this selector.
+     * Paths are sorted so every shared prefix is walked once and every null element on it is created once
+     * if {@link #createNullElements()} was requested. Values what are not instances of target type are converted
+     * by conversionService.
+     * @param values relative path to value
+     * @throws IllegalArgumentException if some of paths is malformed or does not exist
+     */
+    public void applyAll(Object bean, Map<String, ?> values, ConversionService conversionService) {
+        if(values.isEmpty()) return;
+        Class<?> rootType = bean.getClass();
+        Assignment[] assignments = new Assignment[values.size()];
+        int count = 0;
+        int maxLength = 0;
+        for(Map.Entry<String, ?> e : values.entrySet()) {
+            CompiledPath path = compileRelative(rootType, e.getKey());
+            if(path.length() == 0) throw new IllegalArgumentException("Empty path");
+            assignments[count++] = new Assignment(path, e.getValue());
+            maxLength = Math.max(maxLength, path.length());
+        }
+        Arrays.sort(assignments);
+        InstantiationBehaviour behaviour = createIfNull ? instantiationBehaviour : null;
+        //containers[i] is the value after i steps of current path
+        Object[] containers = new Object[maxLength];
+        containers[0] = bean;
+        CompiledPath prev = null;
+        for(Assignment assignment : assignments) {
+            CompiledPath path = assignment.path;
+            int last = path.length() - 1;
+            int i = prev == null ? 0 : Math.min(commonPrefix(prev.segments, path.segments), prev.length() - 1);
+            for(; i < last; i++)
+                containers[i + 1] = path.child(i, containers[i], behaviour);
+            path.assign(containers[last], assignment.value, conversionService);
+            prev = path;
+        }
+    }
+
+    private CompiledPath compileRelative(Class<?> rootType, String relativePath) {
+        ConcurrentMap<String, CompiledPath> paths = relative.get(rootType);
+        if(paths == null) {
+            paths = new ConcurrentHashMap<>();
+            ConcurrentMap<String, CompiledPath> prev = relative.putIfAbsent(rootType, paths);
+            if(prev != null) paths = prev;
+        }
+        CompiledPath res = paths.get(relativePath);
+        if(res == null) {
+            Segment[] segments = parsePath(relativePath);
+            Segment[] full = Arrays.copyOf(path, path.length + segments.length);
+            System.arraycopy(segments, 0, full, path.length, segments.length);
+            res = new CompiledPath(rootType, full);
+            if(paths.size() < MAX_RELATIVE_PATHS) paths.putIfAbsent(relativePath, res);
+        }
+        return res;
+    }
+
+    private static int commonPrefix(Segment[] a, Segment[] b) {
+        int len = Math.min(a.length, b.length);
+        for(int i = 0; i < len; i++)
+            if(!a[i].equals(b[i])) return i;
+        return len;
+    }
+
+    private static final class Assignment implements Comparable<Assignment> {
+        final CompiledPath path;
+        final Object value;
+
+        Assignment(CompiledPath path, Object value) {
+            this.path = path;
+            this.value = value;
+        }
+
+        @Override
+        public int compareTo(Assignment o) {
+            Segment[] a = path.segments;
+            Segment[] b = o.path.segments;
+            int len = Math.min(a.length, b.length);
+            for(int i = 0; i < len; i++) {
+                int res = a[i].compareTo(b[i]);
+                if(res != 0) return res;
+            }
+            return a.length - b.length;
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if path is malformed
+     */
     public static PropertySelector parse(String path) {
-        return new PropertySelector(new ArrayList<>(Arrays.asList(path.split("\\."))));
+        return new PropertySelector(parsePath(path));
+    }
+
+    static Segment[] parsePath(String path) {
+        List<Segment> res = new ArrayList<>();
+        int n = path.length();
+        int i = 0;
+        while(i < n) {
+            char c = path.charAt(i);
+            if(c == '[') {
+                i = parseBracket(path, i + 1, res);
+            } else {
+                int start = i;
+                while(i < n && (c = path.charAt(i)) != '.' && c != '[' && c != ']') i++;
+                if(i == start) throw syntaxError(path, i, "property name expected");
+                res.add(new Segment(Segment.PROPERTY, path.substring(start, i), -1));
+            }
+            if(i < n) {
+                c = path.charAt(i);
+                if(c == '.') {
+                    if(++i == n || path.charAt(i) == '[') throw syntaxError(path, i, "property name expected");
+                } else if(c != '[') {
+                    throw syntaxError(path, i, "unexpected character");
+                }
+            }
+        }
+        return res.toArray(new Segment[res.size()]);
+    }
+
+    /**
+     * Parse index or quoted key starting after opening bracket
+     * @return position after closing bracket
+     */
+    private static int parseBracket(String path, int i, List<Segment> res) {
+        int n = path.length();
+        if(i >= n) throw syntaxError(path, i, "index or key expected");
+        char quote = path.charAt(i);
+        if(quote == '\'' || quote == '"') {
+            StringBuilder key = new StringBuilder();
+            i++;
+            while(true) {
+                if(i >= n) throw syntaxError(path, i, "unterminated key");
+                char c = path.charAt(i++);
+                if(c == quote) break;
+                if(c == '\\') {
+                    if(i >= n) throw syntaxError(path, i, "unterminated key");
+                    c = path.charAt(i++);
+                }
+                key.append(c);
+            }
+            res.add(new Segment(Segment.KEY, key.toString(), -1));
+        } else {
+            int start = i;
+            long index = 0;
+            char c;
+            while(i < n && (c = path.charAt(i)) >= '0' && c <= '9') {
+                index = index * 10 + (c - '0');
+                if(index > Integer.MAX_VALUE) throw syntaxError(path, start, "index is too large");
+                i++;
+            }
+            if(i == start) throw syntaxError(path, i, "index or key expected");
+            res.add(new Segment(Segment.INDEX, null, (int) index));
+        }
+        if(i >= n || path.charAt(i) != ']') throw syntaxError(path, i, "']' expected");
+        return i + 1;
+    }
+
+    private static IllegalArgumentException syntaxError(String path, int pos, String message) {
+        return new IllegalArgumentException("Invalid path "+path+" at "+pos+": "+message);
     }
 
     public InstantiationBehaviour getInstantiationBehaviour() {
         return instantiationBehaviour;
     }
+
+    Segment[] segments() {return path;}
+
+    /**
+     * Path elements of this selector: property names, indexes as {@code [3]} and keys as {@code ['key']}
+     */
+    public List<String> getPath() {
+        List<String> res = new ArrayList<>(path.length);
+        for(Segment segment : path) res.add(segment.toString());
+        return res;
+    }
+
+    /**
+     * Parsed element of the path
+     */
+    static final class Segment implements Comparable<Segment> {
+        static final int PROPERTY = 0;
+        static final int INDEX = 1;
+        static final int KEY = 2;
+
+        final int kind;
+        /** property name or map key */
+        final String name;
+        final int index;
+
+        Segment(int kind, String name, int index) {
+            this.kind = kind;
+            this.name = name;
+            this.index = index;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if(this == o) return true;
+            if(!(o instanceof Segment)) return false;
+            Segment other = (Segment) o;
+            return kind == other.kind && index == other.index && (name == null ? other.name == null : name.equals(other.name));
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * kind + index) + (name == null ? 0 : name.hashCode());
+        }
+
+        @Override
+        public int compareTo(Segment o) {
+            if(kind != o.kind) return kind - o.kind;
+            if(kind == INDEX) return index < o.index ? -1 : index == o.index ? 0 : 1;
+            return name.compareTo(o.name);
+        }
+
+        @Override
+        public String toString() {
+            if(kind == INDEX) return "["+index+"]";
+            if(kind == KEY) return "['"+name.replace("\\", "\\\\").replace("'", "\\'")+"']";
+            return name;
+        }
+    }
 }
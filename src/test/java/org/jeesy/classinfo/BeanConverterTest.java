@@ -1,12 +1,18 @@
 package org.jeesy.classinfo;
 
+import org.jeesy.classinfo.converter.ConverterManager;
+import org.jeesy.classinfo.converter.api.Converter;
 import org.jeesy.classinfo.converter.impl.BeanConverter;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.jeesy.classinfo.TypeInfo.forClass;
 import static org.jeesy.classinfo.converter.DefaultConverter.defaultConverter;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 
 /**
  * @author Artem Mironov
@@ -84,4 +90,56 @@ public class BeanConverterTest {
         assertEquals((Integer)146, beanB.getField2());
         assertEquals("42", beanB.getField3());
     }
+
+    @Test
+    public void testRepeatedBeanConversion() {
+        BeanConverter converter = defaultConverter().converterByType(BeanConverter.class);
+        for(int i = 0; i < 3; i++) {
+            BeanB beanB = new BeanB();
+            beanB.setFieldUnknown("unknown");
+            beanB.setField2(i);
+            beanB.setField3(String.valueOf(i + 100));
+            BeanA beanA = (BeanA) converter.convert(beanB, (TypeInfo)forClass(BeanB.class), (TypeInfo)forClass(BeanA.class));
+            assertNull(beanA.getField1());
+            assertEquals(String.valueOf(i), beanA.getField2());
+            assertEquals((Integer)(i + 100), beanA.getField3());
+        }
+    }
+
+    @Test
+    public void testParallelConversion() {
+        List<BeanA> src = new ArrayList<>();
+        for(int i = 0; i < 5000; i++) {
+            BeanA beanA = new BeanA();
+            beanA.setField2(String.valueOf(i));
+            beanA.setField3(i);
+            src.add(i == 17 ? null : beanA);
+        }
+        List<BeanB> res = defaultConverter().converterByType(BeanConverter.class).convertAll(src, BeanB.class);
+        assertEquals(src.size(), res.size());
+        assertNull(res.get(17));
+        for(int i = 0; i < res.size(); i++) {
+            if(i == 17) continue;
+            assertEquals((Integer) i, res.get(i).getField2());
+            assertEquals(String.valueOf(i), res.get(i).getField3());
+        }
+    }
+
+    @Test
+    public void testConverterRegisteredAfterConversion() {
+        ConverterManager manager = new ConverterManager();
+        BeanConverter converter = new BeanConverter(manager);
+        BeanA beanA = new BeanA();
+        beanA.setField3(42);
+        BeanB beanB = (BeanB) converter.convert(beanA, (TypeInfo)forClass(BeanA.class), (TypeInfo)forClass(BeanB.class));
+        assertEquals("42", beanB.getField3());
+        manager.register(Integer.class, String.class, new Converter<Integer, String>() {
+            @Override
+            public String convert(Integer src, TypeInfo<Integer> srcType, TypeInfo<String> dstType) {
+                return "#" + src;
+            }
+        });
+        beanB = (BeanB) converter.convert(beanA, (TypeInfo)forClass(BeanA.class), (TypeInfo)forClass(BeanB.class));
+        assertEquals("#42", beanB.getField3());
+    }
 }
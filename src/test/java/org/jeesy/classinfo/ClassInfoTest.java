@@ -17,9 +17,13 @@
 package org.jeesy.classinfo;
 
 import org.jeesy.classinfo.annotations.PropertyAnnotation;
+import org.jeesy.classinfo.indexes.ClassIndex;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.Collections;
+
 import static org.jeesy.classinfo.ClassInfoScanner.classInfo;
 import static org.junit.Assert.*;
 
@@ -416,4 +420,116 @@ public class ClassInfoTest {
         pi.setValue(holder, "testvalue");
         assertEquals("testvalue", pi.getValue(holder));
     }
+
+    @Test
+    public void testAccessors() {
+        PropertyInfo<String> pi = info.getPropertyInfo("stringPropWithGetterAndSetter");
+        assertTrue(pi.getAccessor() instanceof PropertyAccessor.MethodHandleAccessor);
+        assertTrue(info.getPropertyInfo("stringPropOnlyField").getAccessor() instanceof PropertyAccessor.MethodHandleAccessor);
+
+        ClassInfoScanner reflectionScanner = new ClassInfoScanner(new ClassInfoScanner.DefaultScanBehaviour(),
+                new ClassInfoScanner.DefaultInstantiationBehaviour(), Collections.<Class<? extends ClassIndex>>emptyList(),
+                new ClassInfoScanner.ReflectionAccessBehaviour());
+        PropertyInfo<String> rpi = reflectionScanner.getInfo(ParentBean.class).getPropertyInfo("stringPropWithGetterAndSetter");
+        assertTrue(rpi.getAccessor() instanceof PropertyAccessor.ReflectionAccessor);
+        rpi.setValue(holder, "testvalue");
+        assertEquals("getsettestvalue", pi.getValue(holder));
+        try {
+            reflectionScanner.getInfo(ParentBean.class).getPropertyInfo("stringPropWithSetter").getValue(holder);
+            fail("Exception wasn't thrown for writeonly property");
+        } catch(IllegalStateException e) {
+            //pass
+        }
+    }
+
+    @Test
+    public void testAccessorArgumentErrors() {
+        ClassInfoScanner reflectionScanner = new ClassInfoScanner(new ClassInfoScanner.DefaultScanBehaviour(),
+                new ClassInfoScanner.DefaultInstantiationBehaviour(), Collections.<Class<? extends ClassIndex>>emptyList(),
+                new ClassInfoScanner.ReflectionAccessBehaviour());
+        PropertyInfo<String> pi = info.getPropertyInfo("stringPropWithGetterAndSetter");
+        PropertyInfo<String> field = info.getPropertyInfo("stringPropOnlyField");
+        PropertyInfo<String> reflectionPi = reflectionScanner.getInfo(ParentBean.class).getPropertyInfo("stringPropWithGetterAndSetter");
+        for(PropertyInfo p : Arrays.asList(pi, field, reflectionPi)) {
+            try {
+                p.getValue("not a bean");
+                fail("Exception wasn't thrown for wrong bean type");
+            } catch(IllegalArgumentException e) {
+                //pass
+            }
+            try {
+                p.setValue(holder, 42);
+                fail("Exception wasn't thrown for wrong value type");
+            } catch(IllegalArgumentException e) {
+                //pass
+            }
+        }
+    }
+
+    @Test
+    public void testFunctions() {
+        PropertyInfo<String> pi = info.getPropertyInfo("stringPropWithGetterAndSetter");
+        PropertyGetter<ParentBean, String> getter = pi.getter();
+        PropertySetter<ParentBean, String> setter = pi.setter();
+        assertNotEquals(PropertyFunction.class, getter.getClass());
+        assertSame(getter, pi.getter());
+        ParentBean bean = (ParentBean) holder;
+        assertEquals("getstringPropWithGetterAndSetterValue", getter.get(bean));
+        setter.set(bean, "testvalue");
+        assertEquals("getsettestvalue", getter.get(bean));
+
+        PropertyInfo<String> field = info.getPropertyInfo("stringPropOnlyField");
+        field.<ParentBean>setter().set(bean, "testvalue");
+        assertEquals("testvalue", field.<ParentBean>getter().get(bean));
+        assertSame(getter.getClass().getClassLoader(), field.getter().getClass().getClassLoader());
+
+        try {
+            info.getPropertyInfo("stringPropWithSetter").getter().get(bean);
+            fail("Exception wasn't thrown for writeonly property");
+        } catch(IllegalStateException e) {
+            //pass
+        }
+    }
+
+    @Test
+    public void testBeanAccessor() {
+        BeanAccessor accessor = info.getBeanAccessor();
+        assertNotEquals(BeanAccessor.class, accessor.getClass());
+        assertSame(accessor, info.getBeanAccessor());
+        assertSame(accessor.getClass().getClassLoader(),
+                info.getPropertyInfo("stringPropWithGetterAndSetter").getter().getClass().getClassLoader());
+        assertEquals(13, accessor.getProperties().size());
+        assertEquals(-1, accessor.ordinalOf("missingProperty"));
+        for(PropertyInfo pi : accessor.getProperties()) {
+            int ordinal = accessor.ordinalOf(pi.getName());
+            assertSame(pi, accessor.getProperties().get(ordinal));
+            if(pi.isReadable())
+                assertEquals(pi.getValue(holder), accessor.get(holder, ordinal));
+        }
+        int ordinal = accessor.ordinalOf("stringPropWithGetterAndSetter");
+        accessor.set(holder, ordinal, "testvalue");
+        assertEquals("getsettestvalue", accessor.get(holder, ordinal));
+        try {
+            accessor.get(holder, accessor.ordinalOf("stringPropWithSetter"));
+            fail("Exception wasn't thrown for writeonly property");
+        } catch(IllegalStateException e) {
+            //pass
+        }
+    }
+
+    @Test
+    public void testNameLookup() {
+        for(PropertyInfo pi : info.getPropertyList()) {
+            String name = pi.getName();
+            assertSame(pi, info.getPropertyInfo(new StringBuilder(name)));
+            char[] buf = ("  " + name + ",").toCharArray();
+            assertSame(pi, info.getPropertyInfo(buf, 2, name.length()));
+            assertEquals(pi.getOrdinal(), info.ordinalOf(buf, 2, name.length()));
+            assertEquals(pi.getOrdinal(), info.ordinalOf(name));
+        }
+        assertNull(info.getPropertyInfo(new StringBuilder("noSuchProperty")));
+        char[] buf = "stringProp".toCharArray();
+        assertEquals(-1, info.ordinalOf(buf, 0, buf.length - 1));
+        assertEquals(-1, info.ordinalOf(""));
+    }
 }
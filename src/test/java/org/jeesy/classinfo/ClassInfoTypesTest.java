@@ -4,8 +4,12 @@ import org.junit.Test;
 
 import static org.jeesy.classinfo.ClassInfoScanner.classInfo;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * @author Artem Mironov
@@ -39,6 +43,23 @@ public class ClassInfoTypesTest {
 
     }
 
+    public static class PrimitiveBean {
+        private long longValue;
+        private double doubleValue;
+        private boolean flag;
+        private Integer boxed;
+        public int intField;
+
+        public long getLongValue() {return longValue;}
+        public void setLongValue(long longValue) {this.longValue = longValue;}
+        public double getDoubleValue() {return doubleValue;}
+        public void setDoubleValue(double doubleValue) {this.doubleValue = doubleValue;}
+        public boolean isFlag() {return flag;}
+        public void setFlag(boolean flag) {this.flag = flag;}
+        public Integer getBoxed() {return boxed;}
+        public void setBoxed(Integer boxed) {this.boxed = boxed;}
+    }
+
     @Test
     public void testWithGetter() throws Exception {
         ClassInfo<TestBean> ci = classInfo(TestBean.class);
@@ -76,4 +97,120 @@ public class ClassInfoTypesTest {
         assertNotNull(ci.getPropertyInfo("stringField").getWriteMethod());
         assertEquals(3, ci.getPropertyInfo("stringField").getWriteMethods().size());
     }
+
+    @Test
+    public void testPrimitiveAccess() throws Exception {
+        ClassInfo<PrimitiveBean> ci = classInfo(PrimitiveBean.class);
+        PrimitiveBean bean = new PrimitiveBean();
+        ci.getPropertyInfo("intField").setInt(bean, 42);
+        assertEquals(42, bean.intField);
+        assertEquals(42, ci.getPropertyInfo("intField").getInt(bean));
+        ci.getPropertyInfo("longValue").setLong(bean, Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, ci.getPropertyInfo("longValue").getLong(bean));
+        ci.getPropertyInfo("doubleValue").setDouble(bean, 0.5);
+        assertEquals(0.5, ci.getPropertyInfo("doubleValue").getDouble(bean), 0);
+        ci.getPropertyInfo("flag").setBoolean(bean, true);
+        assertTrue(ci.getPropertyInfo("flag").getBoolean(bean));
+        try {
+            ci.getPropertyInfo("boxed").getInt(bean);
+            fail("Exception wasn't thrown for null wrapper");
+        } catch(IllegalStateException e) {
+            assertTrue(e.getMessage().contains("boxed"));
+        }
+        ci.getPropertyInfo("boxed").setInt(bean, 7);
+        assertEquals(7, ci.getPropertyInfo("boxed").getInt(bean));
+        try {
+            ci.getPropertyInfo("longValue").getInt(bean);
+            fail("Exception wasn't thrown for type mismatch");
+        } catch(IllegalArgumentException e) {
+            //pass
+        }
+    }
+
+    /**
+     * Accessor what fails on boxing access, so primitive methods must not fall back to it
+     */
+    private static class UnboxedReflectionAccessor extends PropertyAccessor.ReflectionAccessor {
+        UnboxedReflectionAccessor(PropertyInfo<?> info) {super(info);}
+        @Override
+        public Object get(Object bean) {throw new AssertionError("boxed read of "+info.getName());}
+        @Override
+        public void set(Object bean, Object value) {throw new AssertionError("boxed write of "+info.getName());}
+    }
+
+    private static class UnboxedMethodHandleAccessor extends PropertyAccessor.MethodHandleAccessor {
+        UnboxedMethodHandleAccessor(PropertyInfo<?> info) throws IllegalAccessException {super(info);}
+        @Override
+        public Object get(Object bean) {throw new AssertionError("boxed read of "+info.getName());}
+        @Override
+        public void set(Object bean, Object value) {throw new AssertionError("boxed write of "+info.getName());}
+    }
+
+    @Test
+    public void testPrimitiveAccessWithoutBoxing() throws Exception {
+        ClassInfo<PrimitiveBean> ci = classInfo(PrimitiveBean.class);
+        PrimitiveBean bean = new PrimitiveBean();
+        for(PropertyAccessor accessor : new PropertyAccessor[] {
+                new UnboxedReflectionAccessor(ci.getPropertyInfo("intField")),
+                new UnboxedMethodHandleAccessor(ci.getPropertyInfo("intField"))}) {
+            accessor.setInt(bean, 42);
+            assertEquals(42, accessor.getInt(bean));
+        }
+        for(PropertyAccessor accessor : new PropertyAccessor[] {
+                new UnboxedReflectionAccessor(ci.getPropertyInfo("longValue")),
+                new UnboxedMethodHandleAccessor(ci.getPropertyInfo("longValue"))}) {
+            accessor.setLong(bean, Long.MAX_VALUE);
+            assertEquals(Long.MAX_VALUE, accessor.getLong(bean));
+        }
+        for(PropertyAccessor accessor : new PropertyAccessor[] {
+                new UnboxedReflectionAccessor(ci.getPropertyInfo("doubleValue")),
+                new UnboxedMethodHandleAccessor(ci.getPropertyInfo("doubleValue"))}) {
+            accessor.setDouble(bean, 0.5);
+            assertEquals(0.5, accessor.getDouble(bean), 0);
+        }
+        for(PropertyAccessor accessor : new PropertyAccessor[] {
+                new UnboxedReflectionAccessor(ci.getPropertyInfo("flag")),
+                new UnboxedMethodHandleAccessor(ci.getPropertyInfo("flag"))}) {
+            accessor.setBoolean(bean, true);
+            assertTrue(accessor.getBoolean(bean));
+            accessor.setBoolean(bean, false);
+        }
+        try {
+            new UnboxedReflectionAccessor(ci.getPropertyInfo("longValue")).getLong("not a bean");
+            fail("Exception wasn't thrown for wrong bean type");
+        } catch(IllegalArgumentException e) {
+            //pass
+        }
+    }
+
+    @Test
+    public void testPrimitiveBeanAccessor() throws Exception {
+        BeanAccessor accessor = classInfo(PrimitiveBean.class).getBeanAccessor();
+        assertNotEquals(BeanAccessor.class, accessor.getClass());
+        PrimitiveBean bean = new PrimitiveBean();
+        accessor.set(bean, accessor.ordinalOf("intField"), 42);
+        accessor.set(bean, accessor.ordinalOf("longValue"), 43L);
+        accessor.set(bean, accessor.ordinalOf("doubleValue"), 0.5);
+        accessor.set(bean, accessor.ordinalOf("flag"), true);
+        accessor.set(bean, accessor.ordinalOf("boxed"), null);
+        assertEquals(42, accessor.get(bean, accessor.ordinalOf("intField")));
+        assertEquals(43L, accessor.get(bean, accessor.ordinalOf("longValue")));
+        assertEquals(0.5, accessor.get(bean, accessor.ordinalOf("doubleValue")));
+        assertEquals(true, accessor.get(bean, accessor.ordinalOf("flag")));
+        assertNull(accessor.get(bean, accessor.ordinalOf("boxed")));
+    }
+
+    @Test
+    public void testOrdinals() throws Exception {
+        ClassInfo<TestBeanNoGetter> parent = classInfo(TestBeanNoGetter.class);
+        ClassInfo<ChildTestBeanNoGetter> child = classInfo(ChildTestBeanNoGetter.class);
+        assertEquals(2, child.propertyCount());
+        for(int i = 0; i < child.propertyCount(); i++) {
+            PropertyInfo pi = child.getProperty(i);
+            assertEquals(i, pi.getOrdinal());
+            assertSame(pi, child.getPropertyList().get(i));
+            assertEquals(parent.getPropertyInfo(pi.getName()).getOrdinal(), pi.getOrdinal());
+        }
+        assertSame(parent.getProperty(0), parent.getPropertyInfo("someField"));
+    }
 }
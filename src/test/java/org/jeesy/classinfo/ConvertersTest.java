@@ -1,8 +1,20 @@
 package org.jeesy.classinfo;
 
+import org.jeesy.classinfo.converter.ConverterManager;
 import org.jeesy.classinfo.converter.DefaultConverter;
+import org.jeesy.classinfo.converter.annotations.Format;
+import org.jeesy.classinfo.converter.api.ConversionException;
+import org.jeesy.classinfo.converter.api.ConversionResult;
+import org.jeesy.classinfo.converter.api.Converter;
+import org.jeesy.classinfo.converter.impl.ChainedConverter;
+import org.jeesy.classinfo.converter.impl.CollectionConverter;
+import org.jeesy.classinfo.converter.impl.EnumConverter;
 import org.junit.Test;
 
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
 import java.util.*;
 
 import static java.util.Arrays.asList;
@@ -44,6 +56,37 @@ public class ConvertersTest {
 
     }
 
+    public interface Tag {}
+    public static class TagSource implements Tag {}
+    public static class SubSource extends TagSource {}
+    public static class OtherTag implements Tag {}
+
+    public static class FactoryTarget {
+        final String via;
+        public FactoryTarget(Object val) {via = "Object";}
+        public FactoryTarget(Tag val) {via = "Tag";}
+        public FactoryTarget(TagSource val) {via = "TagSource";}
+    }
+
+    public static class FactoryError extends Error {}
+
+    public static class FailingTarget {
+        public FailingTarget(String val) {throw new FactoryError();}
+    }
+
+    @Test
+    public void testMostSpecificFactory() throws Exception {
+        assertEquals("TagSource", defaultConverter().convert(new SubSource(), FactoryTarget.class).via);
+        assertEquals("Tag", defaultConverter().convert(new OtherTag(), FactoryTarget.class).via);
+        assertEquals("Object", defaultConverter().convert(42, FactoryTarget.class).via);
+        try {
+            defaultConverter().convert("x", FailingTarget.class);
+            fail("Error wasn't rethrown");
+        } catch(FactoryError e) {
+            //pass
+        }
+    }
+
     @Test
     public void testDefaultConverter() throws Exception {
         assertFromString("42","42");
@@ -93,4 +136,319 @@ public class ConvertersTest {
         assertCollectionFromString(new TypeInfo<Set<Integer>>(){}, new HashSet<>(asList(1, 166,99)), "1,166,99");
     }
 
+    @Test
+    public void testHierarchyResolution() {
+        ConverterManager manager = new ConverterManager();
+        manager.register(Number.class, String.class, new Converter<Number, String>() {
+            @Override
+            public String convert(Number src, TypeInfo<Number> srcType, TypeInfo<String> dstType) {
+                return "n" + src;
+            }
+        });
+        Converter<String, Number> toNumber = new Converter<String, Number>() {
+            @Override
+            public Number convert(String src, TypeInfo<String> srcType, TypeInfo<Number> dstType) {
+                return Long.valueOf(src);
+            }
+        };
+        manager.register(String.class, Number.class, toNumber);
+        assertEquals("n42", manager.convert(42, String.class));
+        assertEquals("n42", manager.convert(new BigDecimal("42"), String.class));
+        assertSame(manager.converterFor(Integer.class, String.class), manager.converterFor(Integer.class, String.class));
+        //converters registered for destination supertype are not used
+        assertSame(toNumber, manager.converterFor(String.class, Number.class));
+        assertSame(manager.getFallback(), manager.converterFor(String.class, Long.class));
+        assertEquals((Integer)42, manager.convert("42", Integer.class));
+        assertSame(manager.getFallback(), manager.converterFor(Boolean.class, Integer.class));
+        //memoized miss also returns fallback, not the internal marker
+        assertSame(manager.getFallback(), manager.converterFor(Boolean.class, Integer.class));
+        try {
+            manager.convert(true, Integer.class);
+            fail();
+        } catch (ConversionException e) {
+            //expected
+        }
+        manager.register(Integer.class, String.class, new Converter<Integer, String>() {
+            @Override
+            public String convert(Integer src, TypeInfo<Integer> srcType, TypeInfo<String> dstType) {
+                return "i" + src;
+            }
+        });
+        assertEquals("i42", manager.convert(42, String.class));
+        assertEquals("n42", manager.convert(42L, String.class));
+    }
+
+    public static class VendorId {
+        private final String id;
+        public VendorId(String id) {this.id = id;}
+        @Override
+        public String toString() {return "V-" + id;}
+    }
+
+    @Test
+    public void testConverterPath() {
+        assertEquals((Long)42L, defaultConverter().convert(42, Long.class));
+        assertTrue((Object) defaultConverter().converterFor(Integer.class, Long.class) instanceof ChainedConverter);
+        ConverterManager manager = new ConverterManager();
+        manager.register(VendorId.class, String.class, new Converter<VendorId, String>() {
+            @Override
+            public String convert(VendorId src, TypeInfo<VendorId> srcType, TypeInfo<String> dstType) {
+                return src.id;
+            }
+        });
+        manager.register(String.class, Integer.class, new Converter<String, Integer>() {
+            @Override
+            public Integer convert(String src, TypeInfo<String> srcType, TypeInfo<Integer> dstType) {
+                return Integer.valueOf(src);
+            }
+        });
+        assertEquals((Integer)17, manager.convert(new VendorId("17"), Integer.class));
+        assertSame(manager.getFallback(), manager.converterFor(Integer.class, VendorId.class));
+        manager.register(Integer.class, VendorId.class, new Converter<Integer, VendorId>() {
+            @Override
+            public VendorId convert(Integer src, TypeInfo<Integer> srcType, TypeInfo<VendorId> dstType) {
+                return new VendorId(String.valueOf(src + 1));
+            }
+        });
+        assertEquals("V-18", manager.convert("17", VendorId.class).toString());
+    }
+
+    @Test
+    public void testConverterPathToSupertypeIsNotGuessed() {
+        assertConversionFails("abc", Object.class);
+        assertConversionFails("abc", Comparable.class);
+        assertConversionFails("12", Number.class);
+        assertConversionFails(5, Object.class);
+    }
+
+    private static void assertConversionFails(Object src, Class<?> dstType) {
+        try {
+            Object res = defaultConverter().convert(src, dstType);
+            fail(src + " to " + dstType.getSimpleName() + " gave " + res);
+        } catch (ConversionException e) {
+            //expected
+        }
+    }
+
+    public static class DateBean {
+        @Format("dd.MM.yyyy")
+        public Date date;
+        public Date timestamp;
+    }
+
+    @Test
+    public void testDateFormat() throws Exception {
+        ClassInfo<DateBean> info = ClassInfoScanner.classInfo(DateBean.class);
+        TypeInfo<Date> dateType = info.getPropertyInfo("date", Date.class).getTypeInfo();
+        TypeInfo<Date> timestampType = info.getPropertyInfo("timestamp", Date.class).getTypeInfo();
+        Date date = new SimpleDateFormat("yyyy-MM-dd").parse("2015-03-14");
+        for(int i = 0; i < 2; i++) {
+            assertEquals(date, defaultConverter().fromString(dateType, "14.03.2015"));
+            assertEquals(date, defaultConverter().fromString(timestampType, "2015-03-14T00:00:00"));
+            assertEquals("14.03.2015", defaultConverter().toString(dateType, date));
+            assertEquals("2015-03-14T00:00:00", defaultConverter().toString(timestampType, date));
+        }
+        try {
+            defaultConverter().fromString(dateType, "2015-03-14");
+            fail("Exception wasn't thrown for wrong date format");
+        } catch(ConversionException e) {
+            //pass
+        }
+    }
+
+    @Test
+    public void testParseCollection() {
+        assertArrayEquals(new String[] {"a", "b", "", "c"}, CollectionConverter.parseCollection("a,b,,c"));
+        assertArrayEquals(new String[0], CollectionConverter.parseCollection(""));
+        assertArrayEquals(new String[] {""}, CollectionConverter.parseCollection("\"\""));
+        assertArrayEquals(new String[] {"a", ""}, CollectionConverter.parseCollection("a,"));
+        assertArrayEquals(new String[] {"a,b", "c"}, CollectionConverter.parseCollection("\"a,b\",c"));
+        assertArrayEquals(new String[] {"a,b", "say \"hi\"", "x\\"}, CollectionConverter.parseCollection("a\\,b,\"say \\\"hi\\\"\",x\\\\"));
+        StringBuilder sb = new StringBuilder();
+        for(int i = 0; i < 50000; i++) sb.append(i).append(',');
+        String[] res = CollectionConverter.parseCollection(sb.toString());
+        assertEquals(50001, res.length);
+        assertEquals("49999", res[49999]);
+        int[] ints = defaultConverter().convert("1,2,3", int[].class);
+        assertArrayEquals(new int[] {1, 2, 3}, ints);
+    }
+
+    @Test
+    public void testCollectionToString() throws Exception {
+        TypeInfo<List<String>> listType = new TypeInfo<List<String>>(){};
+        List<String> list = asList("a,b", "", "say \"hi\"", "back\\slash", "plain");
+        String str = defaultConverter().toString(listType, list);
+        assertOrderedCollectionEquals(list, defaultConverter().fromString(listType, str));
+        StringBuilder out = new StringBuilder("values=");
+        defaultConverter().write(new TypeInfo<Set<Integer>>(){}, new TreeSet<>(asList(3, 1, 2)), out);
+        assertEquals("values=1,2,3", out.toString());
+        assertEquals("x,\\,y", defaultConverter().convert(new String[] {"x", ",y"}, String.class));
+        assertArrayEquals(new String[] {"x", ",y"}, defaultConverter().convert("x,\\,y", String[].class));
+
+        assertEquals("", defaultConverter().convert(new String[0], String.class));
+        assertArrayEquals(new String[0], defaultConverter().convert("", String[].class));
+        assertEquals("", defaultConverter().toString(listType, new ArrayList<String>()));
+        assertTrue(defaultConverter().fromString(listType, "").isEmpty());
+        List<String> singleEmpty = Collections.singletonList("");
+        assertOrderedCollectionEquals(singleEmpty, defaultConverter().fromString(listType, defaultConverter().toString(listType, singleEmpty)));
+        assertArrayEquals(new String[] {""}, defaultConverter().convert(defaultConverter().convert(new String[] {""}, String.class), String[].class));
+    }
+
+    @Test
+    public void testPrimitiveArrays() {
+        assertArrayEquals(new int[] {1, -2, 0, Integer.MAX_VALUE, Integer.MIN_VALUE},
+                defaultConverter().convert("1,-2,,2147483647,-2147483648", int[].class));
+        assertArrayEquals(new long[] {Long.MIN_VALUE, 7}, defaultConverter().convert("-9223372036854775808,+7", long[].class));
+        assertArrayEquals(new double[] {1.5, -2e3, 0}, defaultConverter().convert("1.5,-2e3,", double[].class), 0);
+        assertArrayEquals(new byte[] {127, -128}, defaultConverter().convert("127,-128", byte[].class));
+        assertArrayEquals(new boolean[] {true, false, true}, defaultConverter().convert("TRUE,no,true", boolean[].class));
+        assertArrayEquals(new int[] {1, 2}, defaultConverter().convert("\"1\",2", int[].class));
+        for(String wrong : new String[] {"2147483648", "1,a", "-", "128"}) {
+            try {
+                defaultConverter().convert(wrong, wrong.equals("128") ? byte[].class : int[].class);
+                fail("Exception wasn't thrown for " + wrong);
+            } catch(ConversionException e) {
+                //pass
+            }
+        }
+        assertEquals("1,-2,3", defaultConverter().convert(new int[] {1, -2, 3}, String.class));
+        assertEquals("1.5,0.0", defaultConverter().convert(new double[] {1.5, 0}, String.class));
+        assertEquals("true,false", defaultConverter().convert(new boolean[] {true, false}, String.class));
+        long[] longs = {Long.MAX_VALUE, 0, -1};
+        assertArrayEquals(longs, defaultConverter().convert(defaultConverter().convert(longs, String.class), long[].class));
+        assertEquals("", defaultConverter().convert(new int[0], String.class));
+        assertArrayEquals(new int[0], defaultConverter().convert("", int[].class));
+        assertArrayEquals(new double[0], defaultConverter().convert(defaultConverter().convert(new double[0], String.class), double[].class), 0);
+    }
+
+    @Test
+    public void testConvertAll() {
+        TypeInfo<String> stringType = TypeInfo.forClass(String.class);
+        Long[] dst = new Long[4];
+        Long[] res = defaultConverter().convertAll(new String[] {"1", "", "3"}, stringType, TypeInfo.forClass(Long.class), dst);
+        assertSame(dst, res);
+        assertArrayEquals(new Long[] {1L, null, 3L, null}, res);
+        Object[] longs = defaultConverter().convertAll(new String[] {"1", "2"}, stringType, TypeInfo.forClass(long.class), null);
+        assertArrayEquals(new Long[] {1L, 2L}, longs);
+        List<Integer> ints = defaultConverter().convertAll(new LinkedList<>(asList("4", "5")), stringType, TypeInfo.forClass(Integer.class));
+        assertEquals(asList(4, 5), ints);
+    }
+
+    @Test
+    public void testTryConvert() throws Exception {
+        TypeInfo<String> stringType = TypeInfo.forClass(String.class);
+        ConversionResult<Integer> intResult = new ConversionResult<>();
+        assertTrue(defaultConverter().tryConvertType("-42", stringType, TypeInfo.forClass(Integer.class), intResult));
+        assertEquals((Integer) (-42), intResult.getValue());
+        assertFalse(defaultConverter().tryConvertType("4x2", stringType, TypeInfo.forClass(Integer.class), intResult));
+        assertNull(intResult.getValue());
+        assertNotNull(intResult.getFailure());
+        assertFalse(defaultConverter().tryConvertType("2147483648", stringType, TypeInfo.forClass(int.class), intResult));
+        assertTrue(defaultConverter().tryConvertType("", stringType, TypeInfo.forClass(int.class), intResult));
+        assertEquals((Integer) 0, intResult.getValue());
+        ConversionResult<Byte> byteResult = new ConversionResult<>();
+        assertFalse(defaultConverter().tryConvertType("128", stringType, TypeInfo.forClass(Byte.class), byteResult));
+        ConversionResult<Long> longResult = new ConversionResult<>();
+        assertTrue(defaultConverter().tryConvertType("-9223372036854775808", stringType, TypeInfo.forClass(long.class), longResult));
+        assertEquals((Long) Long.MIN_VALUE, longResult.getValue());
+        ConversionResult<Date> dateResult = new ConversionResult<>();
+        assertTrue(defaultConverter().tryConvertType("2015-03-14T00:00:00", stringType, TypeInfo.forClass(Date.class), dateResult));
+        assertEquals(new SimpleDateFormat("yyyy-MM-dd").parse("2015-03-14"), dateResult.getValue());
+        assertFalse(defaultConverter().tryConvertType("yesterday", stringType, TypeInfo.forClass(Date.class), dateResult));
+        ConversionResult<Double> doubleResult = new ConversionResult<>();
+        assertFalse(defaultConverter().tryConvertType("1.2.3", stringType, TypeInfo.forClass(Double.class), doubleResult));
+        ConversionResult<TestClass> fallbackResult = new ConversionResult<>();
+        assertTrue(defaultConverter().tryConvertType("value", stringType, TypeInfo.forClass(TestClass.class), fallbackResult));
+        assertEquals(new TestClass("value"), fallbackResult.getValue());
+        assertTrue((Object) defaultConverter().converterFor(String.class, Color.class) instanceof EnumConverter);
+        ConversionResult<Color> enumResult = new ConversionResult<>();
+        assertTrue(defaultConverter().tryConvertType("GREEN", stringType, TypeInfo.forClass(Color.class), enumResult));
+        assertEquals(Color.GREEN, enumResult.getValue());
+        assertFalse(defaultConverter().tryConvertType("BLUE", stringType, TypeInfo.forClass(Color.class), enumResult));
+        assertNull(enumResult.getValue());
+        assertNotNull(enumResult.getFailure());
+
+        ConversionException e = new ConversionException("x", stringType, TypeInfo.forClass(Integer.class), "wrong", null, false);
+        assertEquals(0, e.getStackTrace().length);
+        assertTrue(e.getMessage().contains("wrong"));
+    }
+
+    public enum Color {RED, GREEN}
+
+    public static class Code {
+        private final String value;
+        private Code(String value) {this.value = value;}
+        public static Code of(CharSequence value) {return new Code("code-" + value);}
+    }
+
+    @Test
+    public void testFallbackFactories() {
+        assertEquals(Color.GREEN, defaultConverter().convert("GREEN", Color.class));
+        try {
+            defaultConverter().convert("BLUE", Color.class);
+            fail("Exception wasn't thrown for unknown constant");
+        } catch(ConversionException e) {
+            //pass
+        }
+        assertEquals("code-42", defaultConverter().convert(new StringBuilder("42"), Code.class).value);
+        assertEquals(new TestClass("abc"), defaultConverter().convert("abc", TestClass.class));
+        for(int i = 0; i < 2; i++) {
+            try {
+                defaultConverter().convert(new Object(), Code.class);
+                fail("Exception wasn't thrown for not convertible value");
+            } catch(ConversionException e) {
+                //pass
+            }
+        }
+    }
+
+    private static <T> T fromBytes(Class<T> type, String record, int field) {
+        byte[] bytes = record.getBytes(StandardCharsets.UTF_8);
+        int start = 0;
+        for(int i = 0; i < field; i++) start = record.indexOf(';', start) + 1;
+        int end = record.indexOf(';', start);
+        if(end < 0) end = record.length();
+        T fromArray = defaultConverter().fromBytes(TypeInfo.forClass(type), bytes, start, end - start);
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).flip();
+        T fromBuffer = defaultConverter().fromBytes(TypeInfo.forClass(type), direct, start, end - start);
+        assertEquals(fromArray, fromBuffer);
+        assertEquals(0, direct.position());
+        return fromArray;
+    }
+
+    @Test
+    public void testFromBytes() throws Exception {
+        String record = "-42;9223372036854775807;2.5;-0.125;1e3;12345678901234567890.5;TRUE;GREEN;2015-03-14T10:20:30;;x1";
+        assertEquals((Integer) (-42), fromBytes(Integer.class, record, 0));
+        assertEquals((Long) Long.MAX_VALUE, fromBytes(long.class, record, 1));
+        assertEquals((Double) 2.5, fromBytes(Double.class, record, 2));
+        assertEquals((Double) (-0.125), fromBytes(double.class, record, 3));
+        assertEquals((Double) 1000.0, fromBytes(Double.class, record, 4));
+        assertEquals(new BigDecimal("-0.125"), fromBytes(BigDecimal.class, record, 3));
+        assertEquals(new BigDecimal("12345678901234567890.5"), fromBytes(BigDecimal.class, record, 5));
+        assertEquals(Boolean.TRUE, fromBytes(Boolean.class, record, 6));
+        assertEquals(Color.GREEN, fromBytes(Color.class, record, 7));
+        assertEquals(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").parse("2015-03-14 10:20:30"), fromBytes(Date.class, record, 8));
+        assertEquals((Integer) 0, fromBytes(int.class, record, 9));
+        assertNull(fromBytes(Integer.class, record, 9));
+        assertNull(fromBytes(Color.class, record, 9));
+        assertNull(defaultConverter().fromString(TypeInfo.forClass(Color.class), ""));
+        assertNull(defaultConverter().convert("", Color.class));
+        assertEquals((Short) (short) 7, defaultConverter().fromBytes(TypeInfo.forClass(Short.class), "7".getBytes(StandardCharsets.UTF_8), 0, 1));
+        for(Class<?> type : new Class<?>[] {Integer.class, Long.class, Double.class, BigDecimal.class, Color.class, Date.class}) {
+            try {
+                fromBytes(type, record, 10);
+                fail("Exception wasn't thrown for " + type);
+            } catch(ConversionException e) {
+                //pass
+            }
+        }
+        try {
+            fromBytes(Date.class, "2015-02-30T10:20:30", 0);
+            fail("Exception wasn't thrown for wrong date");
+        } catch(ConversionException e) {
+            //pass
+        }
+    }
 }
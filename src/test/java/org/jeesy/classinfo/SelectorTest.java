@@ -2,8 +2,22 @@ package org.jeesy.classinfo;
 
 import org.jeesy.classinfo.selector.PropertyHandle;
 import org.jeesy.classinfo.selector.PropertySelector;
+import org.jeesy.classinfo.selector.CompiledPath;
+import org.jeesy.classinfo.selector.InstantiationBehaviour;
+import org.jeesy.classinfo.selector.ListPropertyHandler;
+import org.jeesy.classinfo.selector.MappingPropertyHandle;
+import org.jeesy.classinfo.selector.Projection;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
 /**
  * @author Artem Mironov
  */
@@ -25,6 +39,37 @@ public class SelectorTest {
         public Nested nested;
     }
 
+    public static class Line {
+        public int qty;
+    }
+
+    public static class Order {
+        public Map<String, Line> lines;
+        public Line[] lineArray;
+        public List raw;
+    }
+
+    public static class Customer {
+        public List<Order> orders;
+        public Address address;
+        public double balance;
+    }
+
+    public static class Address {
+        public String city;
+        public String zip;
+        public long building;
+    }
+
+    public static class CountingCustomer extends Customer {
+        int addressReads;
+
+        public Address getAddress() {
+            addressReads++;
+            return address;
+        }
+    }
+
     @Test
     public void testSelector() {
         TestAccessClass tac = new TestAccessClass();
@@ -34,4 +79,281 @@ public class SelectorTest {
         handle.setValue("42");
         System.out.println(handle.getValue());
     }
+
+    @Test
+    public void testCompiledSelector() {
+        PropertySelector base = PropertySelector.parse("nested");
+        PropertySelector selector = base.nested("d");
+        assertEquals(Arrays.asList("nested"), base.getPath());
+        assertEquals(Arrays.asList("nested", "d"), selector.getPath());
+
+        TestAccessClass tac = new TestAccessClass();
+        assertNull(selector.getValue(tac));
+        CompiledPath compiled = selector.compile(TestAccessClass.class);
+        assertSame(compiled, selector.compile(TestAccessClass.class));
+        assertEquals(2, compiled.length());
+        assertEquals("d", compiled.getLeaf().getName());
+
+        tac.nested = new TestAccessClass.Nested();
+        assertEquals("abc", selector.getValue(tac));
+        selector.setValue(tac, "42");
+        assertEquals("42", tac.nested.d);
+        assertEquals("42", selector.resolve(tac).getValue());
+
+        TestAccessClass empty = new TestAccessClass();
+        try {
+            selector.setValue(empty, "1");
+            fail();
+        } catch (IllegalStateException e) {
+            //expected
+        }
+        selector.createNullElements().setValue(empty, "1");
+        assertEquals("1", empty.nested.d);
+
+        try {
+            PropertySelector.parse("nested.x").compile(TestAccessClass.class);
+            fail();
+        } catch (IllegalArgumentException e) {
+            //expected
+        }
+        try {
+            PropertySelector.parse("nested..d");
+            fail();
+        } catch (IllegalArgumentException e) {
+            //expected
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    @Test
+    public void testListPathConstructor() {
+        PropertySelector selector = new PropertySelector(Arrays.asList("nested", "", "d")) {};
+        assertEquals(Arrays.asList("nested", "d"), selector.getPath());
+        TestAccessClass tac = new TestAccessClass();
+        tac.nested = new TestAccessClass.Nested();
+        assertEquals("abc", selector.getValue(tac));
+    }
+
+    @Test
+    public void testIndexedSelector() {
+        PropertySelector selector = PropertySelector.parse("orders[1].lines['sku'].qty");
+        assertEquals(Arrays.asList("orders", "[1]", "lines", "['sku']", "qty"), selector.getPath());
+        assertEquals(Arrays.asList("a", "['x.y\\'z']", "[0]"), PropertySelector.parse("a[\"x.y'z\"][0]").getPath());
+
+        Customer customer = new Customer();
+        assertNull(selector.getValue(customer));
+        selector.createNullElements().setValue(customer, 5);
+        assertEquals(2, customer.orders.size());
+        assertNull(customer.orders.get(0));
+        assertEquals(5, customer.orders.get(1).lines.get("sku").qty);
+        assertEquals(5, selector.getValue(customer));
+        assertEquals(int.class, selector.compile(Customer.class).getLeafType());
+
+        PropertyHandle lineHandle = PropertySelector.parse("orders[1].lines['other']").createNullElements().resolve(customer);
+        assertTrue(lineHandle instanceof MappingPropertyHandle);
+        assertNull(lineHandle.getValue());
+        Line line = new Line();
+        line.qty = 5;
+        lineHandle.setValue(line);
+        assertSame(line, customer.orders.get(1).lines.get("other"));
+
+        PropertyHandle orderHandle = PropertySelector.parse("orders[0]").resolve(customer);
+        assertTrue(orderHandle instanceof ListPropertyHandler);
+        orderHandle.setValue(new Order());
+        assertNotNull(customer.orders.get(0));
+
+        Order order = customer.orders.get(0);
+        order.lineArray = new Line[] {new Line(), line};
+        assertEquals(5, PropertySelector.parse("orders[0].lineArray[1].qty").getValue(customer));
+        assertNull(PropertySelector.parse("orders[0].lineArray[2].qty").getValue(customer));
+
+        order.raw = new ArrayList();
+        order.raw.add(new int[] {7, 8});
+        order.raw.add(line);
+        assertEquals(8, PropertySelector.parse("raw[0][1]").getValue(order));
+        assertEquals(5, PropertySelector.parse("raw[1].qty").getValue(order));
+        Map<String, Object> map = new HashMap<>();
+        map.put("order", order);
+        assertEquals(5, PropertySelector.parse("['order'].lineArray[1].qty").getValue(map));
+
+        for(String invalid : new String[] {"a[", "a[x]", "a['x]", "a.[0]", "a]", "a.", "a[0]b", "[]"}) {
+            try {
+                PropertySelector.parse(invalid);
+                fail(invalid);
+            } catch (IllegalArgumentException e) {
+                //expected
+            }
+        }
+        try {
+            PropertySelector.parse("orders['x']").compile(Customer.class);
+            fail();
+        } catch (IllegalArgumentException e) {
+            //expected
+        }
+    }
+
+    /**
+     * Records accessor method what reads every value. Boxed reads go through generated property function
+     * and don't pass through {@link PropertyAccessor}.
+     */
+    public static class Measure {
+        static final List<String> readers = new ArrayList<>();
+        private int count = 1000;
+        private long total = 100000L;
+        private double ratio = 0.25;
+
+        public int getCount() {readers.add(reader()); return count;}
+        public long getTotal() {readers.add(reader()); return total;}
+        public double getRatio() {readers.add(reader()); return ratio;}
+
+        private static String reader() {
+            for(StackTraceElement e : new Throwable().getStackTrace())
+                if(e.getClassName().startsWith(PropertyAccessor.class.getName())) return e.getMethodName();
+            return "boxed";
+        }
+    }
+
+    @Test
+    public void testPrimitivePathIsUnboxed() {
+        Measure measure = new Measure();
+        Measure.readers.clear();
+        assertEquals(1000, PropertySelector.parse("count").compile(Measure.class).getInt(measure, 0));
+        assertEquals(100000L, PropertySelector.parse("total").compile(Measure.class).getLong(measure, 0));
+        assertEquals(0.25, PropertySelector.parse("ratio").compile(Measure.class).getDouble(measure, 0), 0);
+        assertEquals(100000, PropertySelector.parse("total").compile(Measure.class).getInt(measure, 0));
+        assertEquals(1000.0, PropertySelector.parse("count").compile(Measure.class).getDouble(measure, 0), 0);
+        assertEquals(Arrays.asList("getInt", "getLong", "getDouble", "getLong", "getInt"), Measure.readers);
+
+        Measure.readers.clear();
+        double[] buffer = new double[3];
+        Projection.of("count", "total", "ratio").evaluate(measure, buffer, 0);
+        assertArrayEquals(new double[] {1000, 100000, 0.25}, buffer, 0);
+        assertEquals(Arrays.asList("getInt", "getLong", "getDouble"), Measure.readers);
+    }
+
+    @Test
+    public void testPrimitiveColumnsAreUnboxed() {
+        List<Measure> measures = Arrays.asList(new Measure(), null, new Measure());
+        Measure.readers.clear();
+        assertArrayEquals(new int[] {1000, -1, 1000}, PropertySelector.parse("count").intColumn(measures, -1));
+        assertArrayEquals(new long[] {100000L, -1, 100000L}, PropertySelector.parse("total").longColumn(measures, -1));
+        assertArrayEquals(new double[] {0.25, -1, 0.25}, PropertySelector.parse("ratio").doubleColumn(measures, -1), 0);
+        assertEquals(Arrays.asList("getInt", "getInt", "getLong", "getLong", "getDouble", "getDouble"), Measure.readers);
+    }
+
+    @Test
+    public void testProjection() {
+        Projection projection = Projection.of("address.city", "address.zip", "balance", "address", "address.building", "address.city", "");
+        assertEquals(7, projection.size());
+        CountingCustomer customer = new CountingCustomer();
+        customer.balance = 2.5;
+        Object[] row = projection.evaluate(customer);
+        assertEquals(1, customer.addressReads);
+        assertArrayEquals(new Object[] {null, null, 2.5, null, null, null, customer}, row);
+
+        Address address = new Address();
+        address.city = "Riga";
+        address.zip = "LV-1010";
+        address.building = 7;
+        customer.address = address;
+        customer.addressReads = 0;
+        row = projection.evaluate(customer);
+        assertEquals(1, customer.addressReads);
+        assertArrayEquals(new Object[] {"Riga", "LV-1010", 2.5, address, 7L, "Riga", customer}, row);
+
+        Projection numbers = Projection.of("balance", "address.building", "orders[0].lines['a'].qty");
+        double[] buffer = new double[4];
+        numbers.evaluate(customer, buffer, 1);
+        assertEquals(0, buffer[0], 0);
+        assertEquals(2.5, buffer[1], 0);
+        assertEquals(7, buffer[2], 0);
+        assertTrue(Double.isNaN(buffer[3]));
+        try {
+            Projection.of("address.city").evaluate(customer, buffer, 0);
+            fail();
+        } catch (IllegalStateException e) {
+            //expected
+        }
+    }
+
+    @Test
+    public void testApplyAll() {
+        final int[] created = new int[1];
+        InstantiationBehaviour counting = new InstantiationBehaviour() {
+            @Override
+            public <T> T newInstance(Class<T> type, AnnotatedNode node) {
+                created[0]++;
+                return new ClassInfoScanner.DefaultInstantiationBehaviour().newInstance(type, node);
+            }
+        };
+        Map<String, Object> values = new TreeMap<>();
+        values.put("orders[0].lines['a'].qty", "3");
+        values.put("address.city", "Riga");
+        values.put("orders[0].lines['b'].qty", 4L);
+        values.put("address.zip", "LV-1010");
+        values.put("balance", "2.5");
+        values.put("address.building", 12);
+
+        Customer customer = new Customer();
+        PropertySelector.parse("").createNullElements(counting).applyAll(customer, values);
+        //address, orders, orders[0], lines, lines['a'], lines['b']
+        assertEquals(6, created[0]);
+        assertEquals("Riga", customer.address.city);
+        assertEquals("LV-1010", customer.address.zip);
+        assertEquals(12L, customer.address.building);
+        assertEquals(2.5, customer.balance, 0);
+        assertEquals(3, customer.orders.get(0).lines.get("a").qty);
+        assertEquals(4, customer.orders.get(0).lines.get("b").qty);
+
+        Map<String, Object> relative = new HashMap<>();
+        relative.put("city", "Tallinn");
+        relative.put("building", "5");
+        PropertySelector.parse("address").applyAll(customer, relative);
+        assertEquals("Tallinn", customer.address.city);
+        assertEquals(5L, customer.address.building);
+
+        try {
+            PropertySelector.parse("").applyAll(new Customer(), relative);
+            fail();
+        } catch (IllegalArgumentException e) {
+            //expected
+        }
+        try {
+            PropertySelector.parse("address").applyAll(new Customer(), relative);
+            fail();
+        } catch (IllegalStateException e) {
+            //expected
+        }
+    }
+
+    @Test
+    public void testColumns() {
+        List<Customer> customers = new ArrayList<>();
+        for(int i = 0; i < 5; i++) {
+            Customer customer = i % 2 == 0 ? new Customer() : new CountingCustomer();
+            customer.balance = i + 0.5;
+            if(i != 3) {
+                customer.address = new Address();
+                customer.address.building = i * 10;
+                customer.address.city = "c" + i;
+            }
+            customers.add(customer);
+        }
+        customers.add(null);
+
+        assertArrayEquals(new double[] {0.5, 1.5, 2.5, 3.5, 4.5, -1}, PropertySelector.parse("balance").doubleColumn(customers, -1), 0);
+        assertArrayEquals(new long[] {0, 10, 20, -1, 40, -1}, PropertySelector.parse("address.building").longColumn(customers, -1));
+        assertArrayEquals(new int[] {0, 10, 20, -1, 40, -1}, PropertySelector.parse("address.building").intColumn(customers, -1));
+        assertArrayEquals(new int[] {0, 1, 2, 3, 4, -1}, PropertySelector.parse("balance").intColumn(customers, -1));
+        String[] cities = PropertySelector.parse("address.city").column(customers, String.class);
+        assertArrayEquals(new String[] {"c0", "c1", "c2", null, "c4", null}, cities);
+        Long[] buildings = PropertySelector.parse("address.building").column(customers, long.class);
+        assertEquals(Long.valueOf(40), buildings[4]);
+        try {
+            PropertySelector.parse("address.city").intColumn(customers, 0);
+            fail();
+        } catch (IllegalStateException e) {
+            //expected
+        }
+    }
 }
@@ -3,12 +3,15 @@ package org.jeesy.classinfo;
 import org.junit.Test;
 import org.jeesy.classinfo.converter.api.Converter;
 
+import java.lang.reflect.Type;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.jeesy.classinfo.ClassInfoScanner.classInfo;
 
@@ -57,4 +60,17 @@ public class TypeInfoTest {
         assertEquals(Set.class, ti.getComponentType().resolveParameter(0).getRawType());
     }
 
+    @Test
+    public void testInterning() throws Exception {
+        assertSame(TypeInfo.forClass(String.class), TypeInfo.forClass(String.class));
+        assertSame(TypeInfo.forClass(int[].class), TypeInfo.forType(int[].class));
+        Type listType = TypeTestClass.class.getMethod("getSomeField").getGenericReturnType();
+        TypeInfo ti = TypeInfo.forType(listType);
+        assertSame(ti, TypeInfo.forType(listType));
+        assertSame(ti, TypeInfo.forType(Types.canonicalize(listType)));
+        assertSame(ti.getComponentType(), ti.getComponentType());
+        PropertyInfo pi = classInfo(ChildTypeTestClass.class).getPropertyInfo("stringField");
+        assertSame(pi, pi.getTypeInfo().getAnnotatedNode());
+        assertNull(TypeInfo.forClass(String.class).getAnnotatedNode());
+    }
 }